@@ -0,0 +1,152 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.Parser;
+import cc.redpen.parser.SentenceExtractor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inputs shared by the benchmarks. The inputs are generated from the sample
+ * texts bundled in the benchmark jar, so that every run measures the same
+ * documents.
+ */
+final class BenchmarkInputs {
+    /**
+     * Number of sections in a generated document.
+     */
+    static final int SECTIONS = 50;
+
+    private BenchmarkInputs() {
+        super();
+    }
+
+    /**
+     * Get the paragraphs of the sample text.
+     *
+     * @param lang language of the sample, "en" or "ja"
+     * @return paragraphs of the sample text
+     */
+    static List<String> paragraphs(String lang) {
+        List<String> paragraphs = new ArrayList<>();
+        try (InputStream stream = BenchmarkInputs.class.getResourceAsStream("/sample-" + lang + ".txt")) {
+            if (stream == null) {
+                throw new IllegalArgumentException("No sample text for " + lang);
+            }
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    paragraphs.add(line.trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return paragraphs;
+    }
+
+    /**
+     * Generate a document in the given format. Each section has a header,
+     * the paragraphs of the sample text and a list, as far as the format
+     * supports them.
+     *
+     * @param format input format
+     * @param lang   language of the sample, "en" or "ja"
+     * @return document text
+     */
+    static String document(Parser.Type format, String lang) {
+        List<String> paragraphs = paragraphs(lang);
+        StringBuilder document = new StringBuilder();
+        for (int i = 0; i < SECTIONS; i++) {
+            String header = "Section " + i;
+            switch (format) {
+                case MARKDOWN:
+                    document.append(i == 0 ? "# " : "## ").append(header).append("\n\n");
+                    break;
+                case WIKI:
+                    document.append(i == 0 ? "h1. " : "h2. ").append(header).append("\n\n");
+                    break;
+                default:
+                    break;
+            }
+            for (String paragraph : paragraphs) {
+                document.append(paragraph).append("\n\n");
+            }
+            if (format != Parser.Type.PLAIN) {
+                for (int j = 0; j < 3; j++) {
+                    document.append("- ").append(paragraphs.get(j % paragraphs.size())).append("\n");
+                }
+                document.append("\n");
+            }
+        }
+        return document.toString();
+    }
+
+    /**
+     * Get the sentences of both the English and the Japanese sample.
+     *
+     * @return sentences of the samples
+     */
+    static List<Sentence> sentenceMix() {
+        List<Sentence> sentences = new ArrayList<>();
+        sentences.addAll(sentences("en"));
+        sentences.addAll(sentences("ja"));
+        return sentences;
+    }
+
+    /**
+     * Get the sentences of the sample text.
+     *
+     * @param lang language of the sample, "en" or "ja"
+     * @return sentences of the sample
+     */
+    static List<Sentence> sentences(String lang) {
+        SentenceExtractor extractor = new SentenceExtractor(fullStops(lang));
+        List<Sentence> sentences = new ArrayList<>();
+        int lineNumber = 0;
+        for (String paragraph : paragraphs(lang)) {
+            extractor.extract(paragraph, sentences, lineNumber++);
+        }
+        return sentences;
+    }
+
+    /**
+     * Get the end of sentence characters of a language.
+     *
+     * @param lang language, "en" or "ja"
+     * @return end of sentence characters
+     */
+    static List<String> fullStops(String lang) {
+        if (lang.equals("ja")) {
+            return Arrays.asList("。", "？", "！");
+        }
+        return Arrays.asList(".", "?", "!");
+    }
+}
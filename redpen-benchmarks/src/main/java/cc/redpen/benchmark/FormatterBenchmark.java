@@ -0,0 +1,83 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.ValidationError;
+import cc.redpen.formatter.Formatter;
+import cc.redpen.formatter.PlainFormatter;
+import cc.redpen.formatter.XMLFormatter;
+import cc.redpen.model.Sentence;
+import cc.redpen.validator.sentence.SpellingValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Format validation errors of the sample sentences, reporting the time per
+ * error.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class FormatterBenchmark {
+    private static final int ERRORS = 1000;
+
+    @Param({"plain", "xml"})
+    public String format;
+
+    private Formatter formatter;
+    private ValidationError[] errors;
+
+    @Setup
+    public void setUp() throws RedPenException {
+        formatter = format.equals("xml") ? new XMLFormatter() : new PlainFormatter();
+        List<Sentence> sentences = BenchmarkInputs.sentenceMix();
+        errors = new ValidationError[ERRORS];
+        for (int i = 0; i < ERRORS; i++) {
+            errors[i] = new ValidationError(SpellingValidator.class,
+                    "Found possibly misspelled word <" + i + ">.", sentences.get(i % sentences.size()));
+            errors[i].setFileName("doc" + i % 10 + ".md");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ERRORS)
+    public int convertError() {
+        int length = 0;
+        for (ValidationError error : errors) {
+            length += formatter.convertError(error).length();
+        }
+        return length;
+    }
+}
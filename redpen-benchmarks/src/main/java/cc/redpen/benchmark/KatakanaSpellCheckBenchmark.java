@@ -0,0 +1,104 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.model.Sentence;
+import cc.redpen.validator.Validator;
+import cc.redpen.validator.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validate sentences of random Katakana words with KatakanaSpellCheck,
+ * which compares each new word with all the words seen before. Random
+ * words are rarely similar, which is close to the worst case for pruning
+ * the comparisons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class KatakanaSpellCheckBenchmark {
+    private static final String KATAKANA = "アイウエオカキクケコサシスセソタチツテトナニヌネノハヒフヘホマミムメモラリルレロンー";
+    private static final int WORDS_PER_SENTENCE = 3;
+
+    @Param({"500", "1000"})
+    public int sentenceCount;
+
+    private Configuration configuration;
+    private List<Sentence> sentences;
+    private Validator<Sentence> validator;
+
+    @Setup
+    public void setUp() {
+        configuration = new Configuration.Builder().setSymbolTable("ja").build();
+        // a fixed seed keeps the words the same in every run
+        Random random = new Random(42);
+        sentences = new ArrayList<>(sentenceCount);
+        for (int i = 0; i < sentenceCount; i++) {
+            StringBuilder sentence = new StringBuilder();
+            for (int j = 0; j < WORDS_PER_SENTENCE; j++) {
+                int length = 4 + random.nextInt(7);
+                for (int k = 0; k < length; k++) {
+                    sentence.append(KATAKANA.charAt(random.nextInt(KATAKANA.length())));
+                }
+                sentence.append(j < WORDS_PER_SENTENCE - 1 ? "と" : "です。");
+            }
+            sentences.add(new Sentence(sentence.toString(), i));
+        }
+    }
+
+    /**
+     * Start each invocation with a validator which has seen no words.
+     */
+    @Setup(Level.Invocation)
+    @SuppressWarnings("unchecked")
+    public void createValidator() throws RedPenException {
+        validator = (Validator<Sentence>) ValidatorFactory.getInstance(
+                new ValidatorConfiguration("KatakanaSpellCheck"), configuration.getSymbolTable());
+    }
+
+    @Benchmark
+    public int validate() {
+        int errors = 0;
+        for (Sentence sentence : sentences) {
+            errors += validator.validate(sentence).size();
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.util.LevenshteinDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compute the edit distance of Katakana-like word pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class LevenshteinDistanceBenchmark {
+    private static final int PAIRS = 1000;
+    private static final String KATAKANA = "アイウエオカキクケコサシスセソタチツテトナニヌネノハヒフヘホマミムメモラリルレロンー";
+
+    @Param({"8", "32"})
+    public int length;
+
+    private final LevenshteinDistance distance = new LevenshteinDistance();
+    private String[] left;
+    private String[] right;
+
+    @Setup
+    public void setUp() {
+        // a fixed seed keeps the pairs the same in every run
+        Random random = new Random(42);
+        left = new String[PAIRS];
+        right = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            left[i] = randomWord(random, length);
+            right[i] = mutate(random, left[i]);
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(KATAKANA.charAt(random.nextInt(KATAKANA.length())));
+        }
+        return word.toString();
+    }
+
+    private static String mutate(Random random, String word) {
+        StringBuilder mutated = new StringBuilder(word);
+        int edits = random.nextInt(4);
+        for (int i = 0; i < edits && mutated.length() > 1; i++) {
+            int position = random.nextInt(mutated.length());
+            char c = KATAKANA.charAt(random.nextInt(KATAKANA.length()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    mutated.insert(position, c);
+                    break;
+                case 1:
+                    mutated.deleteCharAt(position);
+                    break;
+                default:
+                    mutated.setCharAt(position, c);
+                    break;
+            }
+        }
+        return mutated.toString();
+    }
+
+    @Benchmark
+    public int exact() {
+        int sum = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += distance.distance(left[i], right[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int bounded() {
+        int sum = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += distance.distance(left[i], right[i], 2);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse a generated document with each parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class ParserBenchmark {
+    @Param({"PLAIN", "WIKI", "MARKDOWN"})
+    public Parser.Type format;
+
+    @Param({"en", "ja"})
+    public String lang;
+
+    private Configuration configuration;
+    private byte[] input;
+    private Parser parser;
+
+    @Setup
+    public void setUp() {
+        configuration = new Configuration.Builder().setSymbolTable(lang).build();
+        input = BenchmarkInputs.document(format, lang).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The parser keeps the parsed documents in its builder, so a new parser
+     * is created for each invocation outside of the measurement.
+     */
+    @Setup(Level.Invocation)
+    public void createParser() throws RedPenException {
+        parser = DocumentParserFactory.generate(format, configuration,
+                new DocumentCollection.Builder());
+    }
+
+    @Benchmark
+    public Document parse() throws RedPenException {
+        return parser.generateDocument(new ByteArrayInputStream(input));
+    }
+}
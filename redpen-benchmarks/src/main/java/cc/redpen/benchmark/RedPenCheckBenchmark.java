@@ -0,0 +1,136 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPen;
+import cc.redpen.RedPenException;
+import cc.redpen.SentenceResultCache;
+import cc.redpen.ValidationError;
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.distributor.FakeResultDistributor;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validate a parsed document collection with the validators of the
+ * sample configurations. Each document holds about a thousand sentences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class RedPenCheckBenchmark {
+    @Param({"en", "ja"})
+    public String lang;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    /* 12 documents hold more than 10k sentences */
+    @Param({"4", "12"})
+    public int documents;
+
+    /* with the sentence cache, every check after the first reuses the memoized errors */
+    @Param({"false", "true"})
+    public boolean sentenceCache;
+
+    /* the sections repeat the same sample text, run with -p deduplication=true to validate it once */
+    @Param({"false"})
+    public boolean deduplication;
+
+    /* the validators are timed only when metrics are requested, run with -p timing=true to compare */
+    @Param({"false"})
+    public boolean timing;
+
+    private RedPen redPen;
+    private DocumentCollection collection;
+
+    @Setup
+    public void setUp() throws RedPenException {
+        Configuration.Builder builder = new Configuration.Builder()
+                .setSymbolTable(lang)
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength")
+                        .addAttribute("max_length", "100"))
+                .addValidatorConfig(new ValidatorConfiguration("InvalidSymbol"))
+                .addValidatorConfig(new ValidatorConfiguration("SymbolWithSpace"))
+                .addValidatorConfig(new ValidatorConfiguration("SectionLength")
+                        .addAttribute("max_char_num", "1500"))
+                .addValidatorConfig(new ValidatorConfiguration("ParagraphNumber"));
+        if (lang.equals("ja")) {
+            builder.addValidatorConfig(new ValidatorConfiguration("KatakanaEndHyphen"))
+                    .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"));
+        } else {
+            builder.addValidatorConfig(new ValidatorConfiguration("Spelling"))
+                    .addValidatorConfig(new ValidatorConfiguration("Contraction"));
+        }
+        Configuration configuration = builder.build();
+
+        RedPen.Builder redPenBuilder = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setThreadCount(threads)
+                .setSentenceDeduplication(deduplication)
+                .setMetrics(new Metrics(timing));
+        if (sentenceCache) {
+            redPenBuilder.setSentenceCache(new SentenceResultCache(100000));
+        }
+        redPen = redPenBuilder.build();
+
+        DocumentCollection.Builder documentBuilder = new DocumentCollection.Builder();
+        Parser parser = DocumentParserFactory.generate(Parser.Type.MARKDOWN,
+                configuration, documentBuilder);
+        byte[] input = BenchmarkInputs.document(Parser.Type.MARKDOWN, lang)
+                .getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < documents; i++) {
+            parser.generateDocument(new ByteArrayInputStream(input));
+        }
+        collection = documentBuilder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        redPen.close();
+    }
+
+    @Benchmark
+    public List<ValidationError> check() {
+        return redPen.check(collection);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.ValidationError;
+import cc.redpen.distributor.ResultDistributor;
+import cc.redpen.distributor.ResultDistributorFactory;
+import cc.redpen.formatter.Formatter;
+import cc.redpen.validator.sentence.SpellingValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write the validation errors to a file with the synchronous and the
+ * asynchronous result distributor, as the command line tool does with its
+ * standard output redirected to a file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class ResultDistributorBenchmark {
+    private static final int ERRORS = 200000;
+
+    @Param({"plain", "xml"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean asynchronous;
+
+    private ValidationError[] errors;
+    private File output;
+
+    @Setup
+    public void setUp() throws IOException {
+        // a fixed seed keeps the errors the same in every run
+        Random random = new Random(42);
+        errors = new ValidationError[ERRORS];
+        for (int i = 0; i < ERRORS; i++) {
+            errors[i] = new ValidationError(SpellingValidator.class,
+                    "Found possibly misspelled word \"word" + random.nextInt(10000) + "\".",
+                    random.nextInt(5000));
+            errors[i].setFileName("doc" + i / 1000 + ".md");
+        }
+        output = File.createTempFile("redpen-benchmark", ".txt");
+        output.deleteOnExit();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!output.delete()) {
+            output.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public long distribute() throws IOException {
+        try (OutputStream os = new FileOutputStream(output);
+             ResultDistributor distributor = ResultDistributorFactory.createDistributor(
+                     Formatter.Type.valueOf(format.toUpperCase()), os, asynchronous)) {
+            distributor.flushHeader();
+            for (ValidationError error : errors) {
+                distributor.flushResult(error);
+            }
+            distributor.flushFooter();
+        }
+        return output.length();
+    }
+}
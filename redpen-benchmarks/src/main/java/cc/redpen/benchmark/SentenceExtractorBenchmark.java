@@ -0,0 +1,90 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.SentenceExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Split a long paragraph into sentences, which exercises SentenceExtractor
+ * and EndOfSentenceDetector. Each section of the English paragraph also
+ * has a sentence with abbreviations, which must not end the sentence.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class SentenceExtractorBenchmark {
+    private static final String ABBREVIATIONS =
+            "Mr. Smith met Dr. Jones at 10 a.m. on Jan. 5 in the U.S.A. office.";
+
+    @Param({"en", "ja"})
+    public String lang;
+
+    /* 400 sections make a paragraph of more than 4000 sentences */
+    @Param({"50", "400"})
+    public int sections;
+
+    private SentenceExtractor extractor;
+    private String paragraph;
+
+    @Setup
+    public void setUp() {
+        extractor = new SentenceExtractor(BenchmarkInputs.fullStops(lang));
+        StringBuilder builder = new StringBuilder();
+        List<String> paragraphs = BenchmarkInputs.paragraphs(lang);
+        for (int i = 0; i < sections; i++) {
+            for (String line : paragraphs) {
+                builder.append(line).append(' ');
+            }
+            if (lang.equals("en")) {
+                builder.append(ABBREVIATIONS).append(' ');
+            }
+        }
+        paragraph = builder.toString();
+    }
+
+    @Benchmark
+    public List<Sentence> extract() {
+        List<Sentence> sentences = new ArrayList<>();
+        extractor.extract(paragraph, 0, paragraph.length(), sentences, 0);
+        return sentences;
+    }
+
+    @Benchmark
+    public int firstSentenceEnd() {
+        return extractor.getSentenceEndPosition(paragraph);
+    }
+}
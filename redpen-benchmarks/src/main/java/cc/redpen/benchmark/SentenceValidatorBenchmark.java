@@ -0,0 +1,122 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.model.Sentence;
+import cc.redpen.validator.Validator;
+import cc.redpen.validator.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validate a mix of English and Japanese sentences with each sentence
+ * validator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class SentenceValidatorBenchmark {
+    @Param({
+            "CommaNumber",
+            "Contraction",
+            "EndOfSentence",
+            "InvalidExpression",
+            "InvalidSymbol",
+            "InvalidWord",
+            "KatakanaEndHyphen",
+            "KatakanaSpellCheck",
+            "Quotation",
+            "SentenceLength",
+            "SpaceBeginningOfSentence",
+            "SpaceBetweenAlphabeticalWord",
+            "Spelling",
+            "StartWithCapitalLetter",
+            "SuggestExpression",
+            "SymbolWithSpace",
+            "WordNumber"
+    })
+    public String validatorName;
+
+    private Validator<Sentence> validator;
+    private List<Sentence> sentences;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws RedPenException, IOException {
+        Configuration configuration = new Configuration.Builder()
+                .setSymbolTable("en")
+                .setSymbol("RIGHT_SINGLE_QUOTATION_MARK", "'")
+                .setSymbol("RIGHT_DOUBLE_QUOTATION_MARK", "\"")
+                .build();
+        ValidatorConfiguration validatorConfiguration = new ValidatorConfiguration(validatorName);
+        if (validatorName.equals("SuggestExpression")) {
+            validatorConfiguration.addAttribute("invalid_word_file",
+                    copyResource("/suggest-expression.tsv").getPath());
+        }
+        validator = (Validator<Sentence>) ValidatorFactory.getInstance(
+                validatorConfiguration, configuration.getSymbolTable());
+        sentences = BenchmarkInputs.sentenceMix();
+    }
+
+    private static File copyResource(String name) throws IOException {
+        File file = File.createTempFile("redpen-benchmark", ".tsv");
+        file.deleteOnExit();
+        try (InputStream stream = SentenceValidatorBenchmark.class.getResourceAsStream(name)) {
+            Files.copy(stream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    /**
+     * Validate all the sentences as a single run, so that stateful
+     * validators start each invocation with an empty state.
+     *
+     * @param blackhole sink of the errors
+     */
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        Validator<Sentence> run = validator.fork();
+        for (Sentence sentence : sentences) {
+            blackhole.consume(run.validate(sentence));
+        }
+    }
+}
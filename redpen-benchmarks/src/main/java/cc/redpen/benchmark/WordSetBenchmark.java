@@ -0,0 +1,180 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.util.CompactWordSet;
+import cc.redpen.util.ResourceLoader;
+import cc.redpen.util.WordListExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Look up words in the English spelling dictionary stored in a HashSet and
+ * in a CompactWordSet. Half of the looked up words are in the dictionary.
+ * <p>
+ * Run the main method of this class to print the heap retained by each set:
+ * <pre>java -cp target/benchmarks.jar cc.redpen.benchmark.WordSetBenchmark</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dfile.encoding=UTF-8"})
+public class WordSetBenchmark {
+    private static final String DICTIONARY = "default-resources/spellchecker/spellchecker-en.dat";
+    private static final int QUERIES = 1024;
+
+    @Param({"hash", "compact"})
+    public String set;
+
+    private Set<String> words;
+    private String[] queries;
+    /* the queries joined, so that each lookup can use a fresh string as the validator does */
+    private String text;
+    private int[] starts;
+
+    @Setup
+    public void setUp() throws IOException {
+        Set<String> dictionary = loadDictionary();
+        words = set.equals("hash") ? new HashSet<>(dictionary) : CompactWordSet.of(dictionary);
+
+        // a fixed seed keeps the queries the same in every run
+        Random random = new Random(42);
+        List<String> sorted = new ArrayList<>(dictionary);
+        sorted.sort(null);
+        queries = new String[QUERIES];
+        StringBuilder joined = new StringBuilder();
+        starts = new int[QUERIES + 1];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = sorted.get(random.nextInt(sorted.size()));
+            // a misspelled word shares the prefix of a valid one
+            queries[i] = i % 2 == 0 ? word : word + "q";
+            starts[i] = joined.length();
+            joined.append(queries[i]);
+        }
+        starts[QUERIES] = joined.length();
+        text = joined.toString();
+    }
+
+    static Set<String> loadDictionary() throws IOException {
+        WordListExtractor extractor = new WordListExtractor();
+        extractor.setToLowerCase();
+        new ResourceLoader(extractor).loadInternalResource(DICTIONARY);
+        return extractor.get();
+    }
+
+    /**
+     * Look up strings whose hash codes are already computed.
+     */
+    @Benchmark
+    public int containsCached() {
+        int found = 0;
+        for (String query : queries) {
+            if (words.contains(query)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Look up new strings, like the words split from each sentence.
+     */
+    @Benchmark
+    public int containsFresh() {
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (words.contains(text.substring(starts[i], starts[i + 1]))) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Print the heap retained by the dictionary in each set.
+     *
+     * @param args not used
+     * @throws IOException when the dictionary can not be loaded
+     */
+    public static void main(String[] args) throws IOException {
+        Set<String> dictionary = loadDictionary();
+        System.out.println("words: " + dictionary.size());
+        System.out.printf("HashSet:        %,12d bytes%n",
+                retainedBytes(() -> new HashSet<>(loadWords())));
+        System.out.printf("CompactWordSet: %,12d bytes%n",
+                retainedBytes(() -> CompactWordSet.of(loadWords())));
+    }
+
+    private static Set<String> loadWords() {
+        try {
+            return loadDictionary();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Measure the used heap before and after building a set, keeping the
+     * set reachable. The median of several runs is returned.
+     */
+    private static long retainedBytes(Supplier<Set<String>> factory) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] samples = new long[5];
+        for (int i = 0; i < samples.length; i++) {
+            long before = usedAfterGc(memory);
+            Set<String> built = factory.get();
+            long after = usedAfterGc(memory);
+            samples[i] = after - before;
+            if (built.isEmpty()) {
+                throw new IllegalStateException("empty dictionary");
+            }
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
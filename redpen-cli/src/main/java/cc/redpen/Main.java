@@ -18,15 +18,25 @@
 package cc.redpen;
 
 import cc.redpen.config.Configuration;
+import cc.redpen.config.ConfigurationFingerprint;
+import cc.redpen.distributor.FakeResultDistributor;
 import cc.redpen.distributor.ResultDistributor;
 import cc.redpen.distributor.ResultDistributorFactory;
 import cc.redpen.formatter.Formatter;
+import cc.redpen.metrics.HitCounter;
+import cc.redpen.metrics.Metrics;
 import cc.redpen.model.DocumentCollection;
 import cc.redpen.parser.Parser;
 import org.apache.commons.cli.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Class containing main method called from command line.
  */
@@ -64,6 +74,27 @@ public final class Main {
         OptionBuilder.withArgName("RESULT FORMAT");
         options.addOption(OptionBuilder.create("r"));
 
+        OptionBuilder.withLongOpt("threads");
+        OptionBuilder.withDescription("number of threads to parse and validate documents");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("THREADS");
+        options.addOption(OptionBuilder.create("t"));
+
+        options.addOption("s", "stream", false,
+                "validate each section while parsing, for very large inputs");
+
+        OptionBuilder.withLongOpt("cache-dir");
+        OptionBuilder.withDescription("directory keeping the results of unchanged input files between runs");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("DIRECTORY");
+        options.addOption(OptionBuilder.create());
+
+        options.addOption(null, "dedup", false,
+                "validate repeated sentences once, for inputs with much boilerplate");
+
+        options.addOption(null, "stats", false,
+                "print the time spent in each parser and validator to standard error");
+
         options.addOption("v", "version", false,
                 "print the version information and exit");
 
@@ -82,6 +113,11 @@ public final class Main {
         String[] inputFileNames = null;
         String configFileName = "";
         String resultFormat = "plain";
+        int threadCount = 1;
+        boolean streaming = false;
+        boolean stats = false;
+        boolean deduplicate = false;
+        String cacheDirectory = null;
         Parser.Type parserType;
         Formatter.Type outputFormat;
 
@@ -105,6 +141,31 @@ public final class Main {
         if (commandLine.hasOption("r")) {
             resultFormat = commandLine.getOptionValue("r");
         }
+        if (commandLine.hasOption("t")) {
+            try {
+                threadCount = Integer.parseInt(commandLine.getOptionValue("t"));
+            } catch (NumberFormatException e) {
+                threadCount = 0;
+            }
+            if (threadCount < 1) {
+                LOG.error("The number of threads must be a positive integer: "
+                        + commandLine.getOptionValue("t"));
+                printHelp(options);
+                System.exit(-1);
+            }
+        }
+        if (commandLine.hasOption("s")) {
+            streaming = true;
+        }
+        if (commandLine.hasOption("cache-dir")) {
+            cacheDirectory = commandLine.getOptionValue("cache-dir");
+        }
+        if (commandLine.hasOption("dedup")) {
+            deduplicate = true;
+        }
+        if (commandLine.hasOption("stats")) {
+            stats = true;
+        }
 
         ConfigurationLoader configLoader = new ConfigurationLoader();
         Configuration conf = configLoader.loadConfiguration(configFileName);
@@ -116,24 +177,121 @@ public final class Main {
         parserType = Parser.Type.valueOf(inputFormat.toUpperCase());
         outputFormat = Formatter.Type.valueOf(resultFormat.toUpperCase());
 
-        DocumentCollection documentCollection =
-                DocumentGenerator.generate(inputFileNames, conf, parserType);
+        ResultDistributor distributor =
+                ResultDistributorFactory.createDistributor(outputFormat, System.out, true);
 
-        if (documentCollection == null) {
-            LOG.error("Failed to create a DocumentCollection object");
-            System.exit(-1);
+        if (cacheDirectory != null && (streaming || inputFileNames == null)) {
+            LOG.warn("The result cache needs input files and is not used with streaming validation");
+            cacheDirectory = null;
         }
-        ResultDistributor distributor =
-                ResultDistributorFactory.createDistributor(outputFormat, System.out);
 
         RedPen redPen = new RedPen.Builder()
                 .setConfiguration(conf)
-                .setResultDistributor(distributor)
+                .setResultDistributor(cacheDirectory == null
+                        ? distributor : new FakeResultDistributor())
+                .setThreadCount(threadCount)
+                .setSentenceDeduplication(deduplicate)
+                .setMetrics(new Metrics(stats))
                 .build();
+        Metrics metrics = redPen.getMetrics();
+
+        int status = 0;
+        if (cacheDirectory != null) {
+            FileResultCache cache = new FileResultCache(new File(cacheDirectory),
+                    ConfigurationFingerprint.of(conf), parserType);
+            if (!checkWithCache(redPen, cache, distributor, inputFileNames, conf,
+                    parserType, threadCount, metrics)) {
+                status = -1;
+            }
+        } else if (streaming) {
+            final String[] fileNames = inputFileNames;
+            redPen.checkStreaming(consumer ->
+                    DocumentGenerator.generate(fileNames, conf, parserType, consumer, metrics));
+        } else {
+            DocumentCollection documentCollection =
+                    DocumentGenerator.generate(inputFileNames, conf, parserType, threadCount, metrics);
+            if (documentCollection == null) {
+                LOG.error("Failed to create a DocumentCollection object");
+                status = -1;
+            } else {
+                redPen.check(documentCollection);
+            }
+        }
+        if (status == 0) {
+            printStats(stats, metrics);
+        }
 
-        redPen.check(documentCollection);
+        redPen.close();
+        distributor.close();
+        System.exit(status);
+    }
+
+    /**
+     * Validate the input files missing in the cache and flush the errors of
+     * all the files in the order of the input.
+     *
+     * @return false when the input files could not be parsed
+     */
+    private static boolean checkWithCache(RedPen redPen, FileResultCache cache,
+                                       ResultDistributor distributor, String[] inputFileNames,
+                                       Configuration conf, Parser.Type parserType,
+                                       int threadCount, Metrics metrics)
+            throws RedPenException {
+        boolean independent = redPen.validatesDocumentsIndependently();
+        if (!independent) {
+            LOG.warn("Some validators check across input files, the result cache is not used");
+        }
+        Map<String, List<ValidationError>> results = new HashMap<>();
+        List<String> missingFileNames = new ArrayList<>();
+        for (String inputFileName : inputFileNames) {
+            List<ValidationError> errors = independent ? cache.get(inputFileName) : null;
+            if (errors == null) {
+                missingFileNames.add(inputFileName);
+                results.put(inputFileName, new ArrayList<>());
+            } else {
+                results.put(inputFileName, errors);
+            }
+        }
 
-        System.exit(0);
+        if (!missingFileNames.isEmpty()) {
+            DocumentCollection documentCollection = DocumentGenerator.generate(
+                    missingFileNames.toArray(new String[missingFileNames.size()]),
+                    conf, parserType, threadCount, metrics);
+            if (documentCollection == null) {
+                LOG.error("Failed to create a DocumentCollection object");
+                return false;
+            }
+            for (ValidationError error : redPen.check(documentCollection)) {
+                results.get(error.getFileName().get()).add(error);
+            }
+            if (independent) {
+                for (String inputFileName : missingFileNames) {
+                    cache.put(inputFileName, results.get(inputFileName));
+                }
+            }
+        }
+        LOG.info("Result cache: " + cache.getHitCount() + " hits, "
+                + cache.getMissCount() + " misses");
+
+        distributor.flushHeader();
+        for (String inputFileName : inputFileNames) {
+            for (ValidationError error : results.get(inputFileName)) {
+                distributor.flushResult(error);
+            }
+        }
+        distributor.flushFooter();
+        return true;
+    }
+
+    private static void printStats(boolean stats, Metrics metrics) {
+        for (HitCounter counter : metrics.getHitCounters()) {
+            LOG.info(String.format("Cache %s: %d hits, %d misses (%.1f%%)",
+                    counter.getName(), counter.getHitCount(), counter.getMissCount(),
+                    counter.getHitRate() * 100));
+        }
+        if (stats) {
+            System.err.print(metrics.format());
+        }
     }
 
     private static void printHelp(Options opt) {
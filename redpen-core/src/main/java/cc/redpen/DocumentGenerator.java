@@ -18,10 +18,24 @@
 package cc.redpen;
 
 import cc.redpen.config.Configuration;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.Timer;
+import cc.redpen.model.Document;
 import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Section;
+import cc.redpen.model.SentenceArena;
+import cc.redpen.model.StreamingDocumentBuilder;
 import cc.redpen.parser.DocumentParserFactory;
 import cc.redpen.parser.Parser;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
 /**
  * Generate DocumentCollection object loading input file.
  */
@@ -41,15 +55,172 @@ public final class DocumentGenerator {
     static DocumentCollection generate(String[] inputFileNames,
                                        Configuration configuration,
                                        Parser.Type format) throws RedPenException {
-        DocumentCollection.Builder documentBuilder =
-                new DocumentCollection.Builder();
+        return generate(inputFileNames, configuration, format, 1);
+    }
+
+    /**
+     * Generate DocumentCollection from input files, parsing the files in
+     * parallel. Each file is parsed with its own parser and builder, and the
+     * documents are merged in the order of the input files. The sentences of
+     * the paragraphs and the lists are stored in a {@link SentenceArena}.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param threadCount    number of threads to parse the files
+     * @return a generated DocumentCollection object
+     */
+    static DocumentCollection generate(String[] inputFileNames,
+                                       Configuration configuration,
+                                       Parser.Type format,
+                                       int threadCount) throws RedPenException {
+        return generate(inputFileNames, configuration, format, threadCount, new Metrics(false));
+    }
+
+    /**
+     * Generate DocumentCollection from input files, recording the parse
+     * time of each file.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param threadCount    number of threads to parse the files
+     * @param metrics        metrics to record the parse time into
+     * @return a generated DocumentCollection object
+     */
+    static DocumentCollection generate(String[] inputFileNames,
+                                       Configuration configuration,
+                                       Parser.Type format,
+                                       int threadCount,
+                                       Metrics metrics) throws RedPenException {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("thread count must be positive: " + threadCount);
+        }
+        if (threadCount == 1 || inputFileNames.length < 2) {
+            DocumentCollection.Builder documentBuilder =
+                    new DocumentCollection.Builder().setSentenceArena(new SentenceArena());
+            Parser parser = DocumentParserFactory.generate(format,
+                    configuration, documentBuilder);
+            Timer timer = getParserTimer(metrics, parser);
+            for (String inputFileName : inputFileNames) {
+                long start = System.nanoTime();
+                parser.generateDocument(inputFileName);
+                timer.record(System.nanoTime() - start, 0);
+            }
+            // @TODO extract summary information to validate documentCollection effectively
+            return documentBuilder.build();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threadCount, inputFileNames.length));
+        try {
+            List<Future<DocumentCollection>> tasks = new ArrayList<>();
+            for (String inputFileName : inputFileNames) {
+                // NOTE: parsers are created on this thread since pegdown generates
+                // its parser class on first use, which is not safe to race
+                DocumentCollection.Builder documentBuilder =
+                        new DocumentCollection.Builder().setSentenceArena(new SentenceArena());
+                Parser parser = DocumentParserFactory.generate(format,
+                        configuration, documentBuilder);
+                Timer timer = getParserTimer(metrics, parser);
+                tasks.add(pool.submit(() -> {
+                    long start = System.nanoTime();
+                    parser.generateDocument(inputFileName);
+                    timer.record(System.nanoTime() - start, 0);
+                    return documentBuilder.build();
+                }));
+            }
+
+            DocumentCollection documentCollection = new DocumentCollection();
+            for (Future<DocumentCollection> task : tasks) {
+                for (Document document : getParsed(task)) {
+                    documentCollection.addDocument(document);
+                }
+            }
+            return documentCollection;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static DocumentCollection getParsed(Future<DocumentCollection> task)
+            throws RedPenException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedPenException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RedPenException) {
+                throw (RedPenException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RedPenException((Exception) cause);
+        }
+    }
+
+    /**
+     * Parse input files handing each section to a consumer as soon as it is
+     * complete, without building the whole DocumentCollection.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param consumer       receives the sections in input order, with their document
+     */
+    static void generate(String[] inputFileNames,
+                         Configuration configuration,
+                         Parser.Type format,
+                         BiConsumer<Document, Section> consumer) throws RedPenException {
+        generate(inputFileNames, configuration, format, consumer, new Metrics(false));
+    }
+
+    /**
+     * Parse input files handing each section to a consumer, recording the
+     * parse time of each file. The time spent in the consumer is not counted
+     * as parse time.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param consumer       receives the sections in input order, with their document
+     * @param metrics        metrics to record the parse time into
+     */
+    static void generate(String[] inputFileNames,
+                         Configuration configuration,
+                         Parser.Type format,
+                         BiConsumer<Document, Section> consumer,
+                         Metrics metrics) throws RedPenException {
+        String[] currentFileName = new String[1];
+        long[] consumerNanos = new long[1];
+        StreamingDocumentBuilder documentBuilder =
+                new StreamingDocumentBuilder((document, section) -> {
+                    long start = System.nanoTime();
+                    // NOTE: parsers set the file name only after a document is parsed
+                    document.setFileName(currentFileName[0]);
+                    consumer.accept(document, section);
+                    consumerNanos[0] += System.nanoTime() - start;
+                });
         Parser parser = DocumentParserFactory.generate(format,
                 configuration, documentBuilder);
+        Timer timer = getParserTimer(metrics, parser);
 
         for (String inputFileName : inputFileNames) {
+            currentFileName[0] = inputFileName;
+            consumerNanos[0] = 0;
+            long start = System.nanoTime();
             parser.generateDocument(inputFileName);
+            documentBuilder.flush();
+            timer.record(System.nanoTime() - start - consumerNanos[0], 0);
         }
-        // @TODO extract summary information to validate documentCollection effectively
-        return documentBuilder.build();
+    }
+
+    private static Timer getParserTimer(Metrics metrics, Parser parser) {
+        return metrics.getTimer(Metrics.PARSER, parser.getClass().getSimpleName());
     }
 }
@@ -0,0 +1,249 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.Parser;
+import cc.redpen.util.Sha256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the validation errors of input files kept in a directory, so
+ * that files unchanged since a previous run are neither parsed nor
+ * validated again.
+ * <p>
+ * The entries are addressed by a SHA-256 digest of the input format, the
+ * configuration fingerprint and the content of the file, so that runs in
+ * different working copies share the entries. Each entry is written to a
+ * temporary file and renamed into place, so that processes sharing the
+ * directory never read a partly written entry. Unreadable entries are
+ * treated as missing.
+ * <p>
+ * An entry holds a magic number, the format, the fingerprint and the
+ * digest, followed by the errors: validator name, message, line number
+ * and the content and position of the sentence when there is one.
+ */
+public final class FileResultCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileResultCache.class);
+    /* bump whenever the layout of the entries changes */
+    private static final int MAGIC = 0x52504331;
+    private static final String SUFFIX = ".rpc";
+
+    private final Path directory;
+    private final String configurationFingerprint;
+    private final Parser.Type format;
+    /* digests of the files looked up, so that the errors are stored for the validated content */
+    private final Map<String, byte[]> digests = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param directory                directory holding the entries, created when missing
+     * @param configurationFingerprint fingerprint of the configuration and dictionaries
+     * @param format                   format of the input files
+     * @throws RedPenException when the directory can not be created
+     */
+    public FileResultCache(File directory, String configurationFingerprint, Parser.Type format)
+            throws RedPenException {
+        this.directory = directory.toPath();
+        this.configurationFingerprint = configurationFingerprint;
+        this.format = format;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new RedPenException("Failed to create the cache directory "
+                    + directory + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the cached errors of an input file.
+     *
+     * @param inputFileName input file
+     * @return the errors with the file name set, or null when not cached
+     * @throws RedPenException when the input file can not be read
+     */
+    public List<ValidationError> get(String inputFileName) throws RedPenException {
+        byte[] digest;
+        try {
+            digest = digest(Files.readAllBytes(new File(inputFileName).toPath()));
+        } catch (IOException e) {
+            throw new RedPenException("Failed to read " + inputFileName + ": " + e.getMessage(), e);
+        }
+        digests.put(inputFileName, digest);
+
+        List<ValidationError> errors = null;
+        try (InputStream in = Files.newInputStream(entryPath(digest))) {
+            errors = read(new DataInputStream(new BufferedInputStream(in)), digest);
+        } catch (NoSuchFileException e) {
+            // not cached
+        } catch (IOException e) {
+            LOG.warn("Ignoring unreadable cache entry for " + inputFileName + ": " + e.getMessage());
+        }
+        if (errors == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        for (ValidationError error : errors) {
+            error.setFileName(inputFileName);
+        }
+        return errors;
+    }
+
+    /**
+     * Store the errors of an input file looked up with {@link #get(String)}.
+     * Failures to write are logged and otherwise ignored.
+     *
+     * @param inputFileName input file
+     * @param errors        errors of the file
+     */
+    public void put(String inputFileName, List<ValidationError> errors) {
+        byte[] digest = digests.get(inputFileName);
+        if (digest == null) {
+            throw new IllegalStateException(inputFileName + " was not looked up in the cache");
+        }
+        Path entry = entryPath(digest);
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+                write(data, digest, errors);
+                data.flush();
+            }
+            try {
+                Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to cache the results of " + inputFileName + ": " + e.getMessage());
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // nothing more to do
+                }
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private void write(DataOutputStream out, byte[] digest, List<ValidationError> errors)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeUTF(format.name());
+        out.writeUTF(configurationFingerprint);
+        out.write(digest);
+        out.writeInt(errors.size());
+        for (ValidationError error : errors) {
+            writeString(out, error.getValidatorName());
+            writeString(out, error.getMessage());
+            out.writeInt(error.getLineNumber());
+            out.writeBoolean(error.getSentence().isPresent());
+            if (error.getSentence().isPresent()) {
+                writeString(out, error.getSentence().get().content);
+                out.writeInt(error.getSentence().get().position);
+            }
+        }
+    }
+
+    private List<ValidationError> read(DataInputStream in, byte[] digest) throws IOException {
+        if (in.readInt() != MAGIC
+                || !in.readUTF().equals(format.name())
+                || !in.readUTF().equals(configurationFingerprint)) {
+            return null;
+        }
+        byte[] storedDigest = new byte[digest.length];
+        in.readFully(storedDigest);
+        if (!Arrays.equals(storedDigest, digest)) {
+            return null;
+        }
+        int errorCount = in.readInt();
+        List<ValidationError> errors = new ArrayList<>(errorCount);
+        for (int i = 0; i < errorCount; i++) {
+            String validatorName = readString(in);
+            String message = readString(in);
+            int lineNumber = in.readInt();
+            Sentence sentence = null;
+            if (in.readBoolean()) {
+                String content = readString(in);
+                sentence = new Sentence(content, in.readInt());
+            }
+            errors.add(ValidationError.restore(validatorName, message, lineNumber, sentence));
+        }
+        return errors;
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] digest(byte[] content) {
+        MessageDigest digest = Sha256.newDigest();
+        digest.update((format.name() + '\0' + configurationFingerprint + '\0')
+                .getBytes(StandardCharsets.UTF_8));
+        return digest.digest(content);
+    }
+
+    private Path entryPath(byte[] digest) {
+        return directory.resolve(Sha256.toHex(digest) + SUFFIX);
+    }
+}
@@ -18,13 +18,19 @@
 package cc.redpen;
 
 import cc.redpen.config.Configuration;
+import cc.redpen.config.ConfigurationFingerprint;
 import cc.redpen.config.ValidatorConfiguration;
 import cc.redpen.distributor.DefaultResultDistributor;
 import cc.redpen.distributor.ResultDistributor;
 import cc.redpen.distributor.ResultDistributorFactory;
 import cc.redpen.formatter.Formatter;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.Timer;
 import cc.redpen.model.*;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.PreProcessor;
+import cc.redpen.validator.StatefulValidator;
 import cc.redpen.validator.Validator;
 import cc.redpen.validator.ValidatorFactory;
 
@@ -32,21 +38,51 @@ import java.io.PrintStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
 
 /**
  * Validate all input files using appended Validators.
  */
-public class RedPen extends Validator<Document> {
+public class RedPen extends Validator<Document> implements AutoCloseable {
+
+    /**
+     * Name of the hit counter of the repeated sentences in the metrics.
+     */
+    public static final String SENTENCE_DEDUPLICATION = "sentence-deduplication";
+    /**
+     * Name of the validator timer of the single pass of the character
+     * validators over each sentence, which are not timed one by one.
+     */
+    public static final String CHARACTER_SCAN = "CharacterScan";
+    /* validator results kept for the repeated sentences of a run */
+    private static final int DEDUPLICATION_ENTRIES = 100000;
 
     private final List<Validator<Document>> validators;
     private final List<Validator<Section>> sectionValidators;
     private final List<Validator<Sentence>> sentenceValidators;
     private ResultDistributor distributor;
+    /* worker pool used for the parallel validation, null when validating on one thread */
+    private final ForkJoinPool pool;
+    private final Metrics metrics;
+    /* memoized sentence validator errors, null when every sentence is validated */
+    private final SentenceResultCache sentenceCache;
+    /* whether each run validates the repeated sentences once, without a sentence cache */
+    private final boolean deduplicateSentences;
+    /* keys of the memoizable sentence validators in the sentence cache */
+    private final Map<Validator<?>, String> memoKeys = new IdentityHashMap<>();
 
     private RedPen(Builder builder) throws RedPenException {
         Configuration configuration = builder.configuration;
         this.distributor = builder.distributor;
+        this.pool = builder.threadCount > 1 ? new ForkJoinPool(builder.threadCount) : null;
+        this.metrics = builder.metrics;
+        this.sentenceCache = builder.sentenceCache;
+        this.deduplicateSentences = builder.deduplicateSentences;
 
         validators = new ArrayList<>();
         sectionValidators = new ArrayList<>();
@@ -65,6 +101,10 @@ public class RedPen extends Validator<Document> {
         this.validators = new ArrayList<>();
         sectionValidators = new ArrayList<>();
         sentenceValidators = new ArrayList<>();
+        this.pool = null;
+        this.metrics = new Metrics(false);
+        this.sentenceCache = null;
+        this.deduplicateSentences = false;
     }
 
     static Type getParameterizedClass(Object obj) {
@@ -107,6 +147,12 @@ public class RedPen extends Validator<Document> {
 
             if (type == Sentence.class) {
                 this.sentenceValidators.add((Validator<Sentence>) validator);
+                if ((sentenceCache != null || deduplicateSentences)
+                        && !(validator instanceof StatefulValidator)
+                        && !(validator instanceof PreProcessor)) {
+                    memoKeys.put(validator, validator.getClass().getName() + ":"
+                            + ConfigurationFingerprint.of(config, configuration.getSymbolTable()));
+                }
             } else if (type == Section.class) {
                 this.sectionValidators.add((Validator<Section>) validator);
             } else {
@@ -118,24 +164,82 @@ public class RedPen extends Validator<Document> {
     /**
      * Validate the input document collection.
      *
+     * Each section is visited once: the sentence preprocessors, the section
+     * validators and the sentence validators are applied to a section before
+     * moving to the next one. Sentence validators which implement PreProcessor
+     * need the information of the whole collection, so that they are applied
+     * after all the sections are preprocessed.
+     *
+     * When the thread count is more than one, the documents are validated
+     * in parallel. The errors are still flushed in the order of the documents
+     * in the input collection.
+     *
+     * Validators which keep state are forked for each call, so that one
+     * RedPen can run several validations concurrently.
+     *
+     * When a sentence cache is set, the stateless sentence validators are
+     * not applied again to sentences they have already seen. Without it,
+     * the sentence deduplication does the same within a single call.
+     *
      * @param documentCollection input document collection generated by Parser
      * @return list of validation errors
      */
     public List<ValidationError> check(DocumentCollection documentCollection) {
         distributor.flushHeader();
         List<ValidationError> errors = new ArrayList<>();
-        runDocumentValidators(documentCollection, errors);
-        runSectionValidators(documentCollection, errors);
-        runSentenceValidators(documentCollection, errors);
+        Run run = new Run();
+        runDocumentValidators(run, documentCollection, errors);
+        if (pool == null) {
+            runValidators(run, documentCollection, errors);
+        } else {
+            runValidatorsInParallel(run, documentCollection, errors);
+        }
+        run.recordDeduplication();
+        distributor.flushFooter();
+        return errors;
+    }
+
+    /**
+     * Validate sections as a producer emits them, without keeping the whole
+     * document collection in memory. The errors are flushed section by
+     * section, so the first error is reported while the input is still
+     * being parsed.
+     *
+     * The sections are validated on the calling thread. Sentence validators
+     * which implement PreProcessor need to see the whole input before
+     * validating, so when such validators are configured the producer is
+     * run twice: once to preprocess and once to validate. Document
+     * validators are not applied since no whole document is available.
+     *
+     * @param producer producer of the sections to validate
+     * @return list of validation errors
+     * @throws RedPenException when the producer fails
+     */
+    public List<ValidationError> checkStreaming(SectionProducer producer)
+            throws RedPenException {
+        distributor.flushHeader();
+        List<ValidationError> errors = new ArrayList<>();
+        Run run = new Run();
+        List<Validator<Sentence>> preprocessingValidators = getPreprocessingValidators(run);
+        if (!preprocessingValidators.isEmpty()) {
+            producer.produce((document, section) ->
+                    applySentencePreProcessorsToSection(section, preprocessingValidators));
+        }
+        producer.produce((document, section) -> {
+            List<ValidationError> newErrors = validateSection(run, section);
+            newErrors.addAll(applySentenceValidationsToSection(run, section, run.sentenceValidators));
+            flushErrors(document, newErrors, errors);
+        });
+        run.recordDeduplication();
         distributor.flushFooter();
         return errors;
     }
 
     private List<ValidationError> runDocumentValidators(
-            DocumentCollection documentCollection,
+            Run run, DocumentCollection documentCollection,
             List<ValidationError> errors) {
         for (Document document : documentCollection) {
-            errors = validateDocument(document);
+            errors = validateDocument(run, document);
             for (ValidationError error : errors) {
                 error.setFileName(document.getFileName());
                 distributor.flushResult(error);
@@ -144,132 +248,267 @@ public class RedPen extends Validator<Document> {
         return errors;
     }
 
-    private List<ValidationError> runSectionValidators(
-            DocumentCollection documentCollection,
-            List<ValidationError> errors) {
+    /*
+     * Both runValidators and runValidatorsInParallel report the errors of a
+     * document in the same order: for each section, the errors of the
+     * section validators and the independent sentence validators, then
+     * those of the stateful sentence validators; after the last section,
+     * the errors of the sentence validators with preprocessing.
+     */
+    private void runValidators(Run run, DocumentCollection documentCollection,
+                               List<ValidationError> errors) {
+        List<Validator<Sentence>> preprocessingValidators = getPreprocessingValidators(run);
+        List<Validator<Sentence>> independentValidators = new ArrayList<>();
+        List<Validator<Sentence>> statefulValidators = new ArrayList<>();
+        splitSentenceValidators(run, preprocessingValidators, independentValidators, statefulValidators);
+
+        // NOTE: validators with preprocessing start after the whole collection is preprocessed,
+        // so the errors are held until then
+        List<List<ValidationError>> heldErrors = new ArrayList<>();
         for (Document document : documentCollection) {
+            List<ValidationError> documentErrors = new ArrayList<>();
             for (Section section : document) {
-                List<ValidationError> newErrors = validateSection(section);
-                for (ValidationError error : newErrors) {
-                    error.setFileName(document.getFileName());
-                    distributor.flushResult(error);
+                applySentencePreProcessorsToSection(section, preprocessingValidators);
+                List<ValidationError> newErrors = validateSection(run, section);
+                newErrors.addAll(applySentenceValidationsToSection(run, section, independentValidators));
+                newErrors.addAll(applySentenceValidationsToSection(run, section, statefulValidators));
+                if (preprocessingValidators.isEmpty()) {
+                    flushErrors(document, newErrors, errors);
+                } else {
+                    documentErrors.addAll(newErrors);
                 }
-                errors.addAll(newErrors);
             }
+            heldErrors.add(documentErrors);
+        }
+        if (preprocessingValidators.isEmpty()) {
+            return;
+        }
+        int documentId = 0;
+        for (Document document : documentCollection) {
+            List<ValidationError> newErrors = heldErrors.get(documentId++);
+            for (Section section : document) {
+                newErrors.addAll(applySentenceValidationsToSection(run, section, preprocessingValidators));
+            }
+            flushErrors(document, newErrors, errors);
         }
-        return errors;
     }
 
-    private List<ValidationError> runSentenceValidators(
-            DocumentCollection documentCollection,
-            List<ValidationError> errors) {
-        runSentencePreProcessorsToDocumentCollection(documentCollection, errors);
-        runSentenceValidatorsToDocumentCollection(documentCollection, errors);
-        return errors;
-    }
+    private void runValidatorsInParallel(
+            Run run, DocumentCollection documentCollection, List<ValidationError> errors) {
+        List<Validator<Sentence>> preprocessingValidators = getPreprocessingValidators(run);
+        List<Validator<Sentence>> independentValidators = new ArrayList<>();
+        List<Validator<Sentence>> statefulValidators = new ArrayList<>();
+        splitSentenceValidators(run, preprocessingValidators, independentValidators, statefulValidators);
+
+        // preprocessors and stateful validators see all the documents in order on a single thread
+        ForkJoinTask<List<List<List<ValidationError>>>> sequentialTask = pool.submit(() -> {
+            List<List<List<ValidationError>>> sequentialErrors = new ArrayList<>();
+            for (Document document : documentCollection) {
+                List<List<ValidationError>> sectionErrors = new ArrayList<>();
+                for (Section section : document) {
+                    applySentencePreProcessorsToSection(section, preprocessingValidators);
+                    sectionErrors.add(applySentenceValidationsToSection(run, section, statefulValidators));
+                }
+                sequentialErrors.add(sectionErrors);
+            }
+            return sequentialErrors;
+        });
 
-    private void runSentencePreProcessorsToDocumentCollection(
-            DocumentCollection documentCollection, List<ValidationError> errors) {
+        List<ForkJoinTask<List<List<ValidationError>>>> documentTasks = new ArrayList<>();
         for (Document document : documentCollection) {
-            for (Section section : document) {
-                applySentencePreProcessorsToSection(document, section);
+            documentTasks.add(pool.submit(() -> {
+                List<List<ValidationError>> sectionErrors = new ArrayList<>();
+                for (Section section : document) {
+                    List<ValidationError> newErrors = validateSection(run, section);
+                    newErrors.addAll(applySentenceValidationsToSection(run, section, independentValidators));
+                    sectionErrors.add(newErrors);
+                }
+                return sectionErrors;
+            }));
+        }
+
+        // NOTE: validators with preprocessing start after the whole collection is preprocessed
+        List<List<List<ValidationError>>> sequentialErrors = sequentialTask.join();
+        List<ForkJoinTask<List<ValidationError>>> preprocessingTasks = new ArrayList<>();
+        for (Document document : documentCollection) {
+            preprocessingTasks.add(pool.submit(() -> {
+                List<ValidationError> documentErrors = new ArrayList<>();
+                for (Section section : document) {
+                    documentErrors.addAll(applySentenceValidationsToSection(run, section, preprocessingValidators));
+                }
+                return documentErrors;
+            }));
+        }
+
+        // merge the results in the order of the input documents, as runValidators reports them
+        int documentId = 0;
+        for (Document document : documentCollection) {
+            List<List<ValidationError>> sectionErrors = documentTasks.get(documentId).join();
+            List<List<ValidationError>> statefulErrors = sequentialErrors.get(documentId);
+            List<ValidationError> newErrors = new ArrayList<>();
+            for (int sectionId = 0; sectionId < sectionErrors.size(); sectionId++) {
+                newErrors.addAll(sectionErrors.get(sectionId));
+                newErrors.addAll(statefulErrors.get(sectionId));
+            }
+            newErrors.addAll(preprocessingTasks.get(documentId).join());
+            flushErrors(document, newErrors, errors);
+            documentId++;
+        }
+    }
+
+    /**
+     * Split the sentence validators without preprocessing into the ones
+     * which must see the sentences in order and the independent ones.
+     */
+    private void splitSentenceValidators(Run run, List<Validator<Sentence>> preprocessingValidators,
+                                         List<Validator<Sentence>> independentValidators,
+                                         List<Validator<Sentence>> statefulValidators) {
+        for (Validator<Sentence> sentenceValidator : run.sentenceValidators) {
+            if (preprocessingValidators.contains(sentenceValidator)) {
+                continue;
+            }
+            if (sentenceValidator instanceof StatefulValidator) {
+                statefulValidators.add(sentenceValidator);
+            } else {
+                independentValidators.add(sentenceValidator);
+            }
+        }
+    }
+
+    private void flushErrors(Document document, List<ValidationError> newErrors,
+                             List<ValidationError> errors) {
+        for (ValidationError error : newErrors) {
+            error.setFileName(document.getFileName());
+            distributor.flushResult(error);
+        }
+        errors.addAll(newErrors);
+    }
+
+    private List<Validator<Sentence>> getPreprocessingValidators(Run run) {
+        List<Validator<Sentence>> preprocessingValidators = new ArrayList<>();
+        for (Validator<Sentence> sentenceValidator : run.sentenceValidators) {
+            if (sentenceValidator instanceof PreProcessor) {
+                preprocessingValidators.add(sentenceValidator);
             }
         }
+        return preprocessingValidators;
     }
 
-    private void applySentencePreProcessorsToSection(Document document, Section section) {
+    private void applySentencePreProcessorsToSection(Section section,
+                                                     List<Validator<Sentence>> preprocessingValidators) {
+        if (preprocessingValidators.isEmpty()) {
+            return;
+        }
         // apply paragraphs
         for (Paragraph paragraph : section.getParagraphs()) {
-            preprocessSentences(paragraph.getSentences());
+            preprocessSentences(paragraph.getSentences(), preprocessingValidators);
         }
         // apply to section header
-        preprocessSentences(section.getHeaderContents());
+        preprocessSentences(section.getHeaderContents(), preprocessingValidators);
         // apply to lists
         for (ListBlock listBlock : section.getListBlocks()) {
             for (ListElement listElement : listBlock.getListElements()) {
-                preprocessSentences(listElement.getSentences());
-            }
-        }
-    }
-
-    private void preprocessSentences(List<Sentence> sentences) {
-        for (Validator<Sentence> sentenceValidator : sentenceValidators) {
-            Class<?> clazz = sentenceValidator.getClass();
-            if (clazz.getInterfaces().length > 0 &&
-                    clazz.getInterfaces()[0].equals(cc.redpen.validator.PreProcessor.class)) {
-                PreProcessor<Sentence> preprocessor = (PreProcessor<Sentence>) sentenceValidator;
-                for (Sentence sentence : sentences) {
-                    preprocessor.preprocess(sentence);
-                }
+                preprocessSentences(listElement.getSentences(), preprocessingValidators);
             }
         }
     }
 
-    private void runSentenceValidatorsToDocumentCollection(
-            DocumentCollection documentCollection, List<ValidationError> errors) {
-        for (Document document : documentCollection) {
-            for (Section section : document) {
-                List<ValidationError> newErrors =
-                        applySentenceValidationsToSection(document, section);
-                errors.addAll(newErrors);
+    @SuppressWarnings("unchecked")
+    private void preprocessSentences(List<Sentence> sentences,
+                                     List<Validator<Sentence>> preprocessingValidators) {
+        sentences = new ArrayList<>(sentences);
+        for (Validator<Sentence> sentenceValidator : preprocessingValidators) {
+            PreProcessor<Sentence> preprocessor = (PreProcessor<Sentence>) sentenceValidator;
+            for (Sentence sentence : sentences) {
+                preprocessor.preprocess(sentence);
             }
         }
     }
 
     private List<ValidationError> applySentenceValidationsToSection(
-            Document document, Section section) {
+            Run run, Section section, List<Validator<Sentence>> targetValidators) {
         List<ValidationError> newErrors = new ArrayList<>();
+        if (targetValidators.isEmpty()) {
+            return newErrors;
+        }
         // apply paragraphs
         for (Paragraph paragraph : section.getParagraphs()) {
-            newErrors.addAll(validateParagraph(paragraph));
+            newErrors.addAll(validateSentences(run, paragraph.getSentences(), targetValidators));
         }
 
         // apply to section header
-        newErrors.addAll(validateSentences(section.getHeaderContents()));
+        newErrors.addAll(validateSentences(run, section.getHeaderContents(), targetValidators));
 
         // apply to lists
         for (ListBlock listBlock : section.getListBlocks()) {
             for (ListElement listElement : listBlock.getListElements()) {
-                newErrors.addAll(validateSentences(listElement.getSentences()));
+                newErrors.addAll(validateSentences(run, listElement.getSentences(), targetValidators));
             }
         }
-        for (ValidationError error : newErrors) {
-            error.setFileName(document.getFileName());
-            distributor.flushResult(error);
-        }
         return newErrors;
     }
 
-    private List<ValidationError> validateDocument(Document document) {
+    private List<ValidationError> validateDocument(Run run, Document document) {
         List<ValidationError> errors = new ArrayList<>();
-        for (Validator<Document> validator : validators) {
-            errors.addAll(validator.validate(document));
+        for (Validator<Document> validator : run.validators) {
+            errors.addAll(run.validate(validator, document));
         }
         return errors;
     }
 
-    private List<ValidationError> validateSection(Section section) {
+    private List<ValidationError> validateSection(Run run, Section section) {
         List<ValidationError> errors = new ArrayList<>();
-        for (Validator<Section> sectionValidator : sectionValidators) {
-            errors.addAll(sectionValidator.validate(section));
+        for (Validator<Section> sectionValidator : run.sectionValidators) {
+            errors.addAll(run.validate(sectionValidator, section));
         }
         return errors;
     }
 
-    private List<ValidationError> validateParagraph(Paragraph paragraph) {
+    private List<ValidationError> validateSentences(Run run, List<Sentence> sentences,
+                                                    List<Validator<Sentence>> targetValidators) {
+        // NOTE: blocks stored in an arena create their sentences on each read
+        sentences = new ArrayList<>(sentences);
         List<ValidationError> errors = new ArrayList<>();
-        errors.addAll(validateSentences(paragraph.getSentences()));
+        List<List<ValidationError>> scannedErrors = run.scanSentences(sentences, targetValidators);
+        for (Validator<Sentence> sentenceValidator : targetValidators) {
+            Integer scanIndex = run.scanIndices.get(sentenceValidator);
+            if (scanIndex != null) {
+                errors.addAll(scannedErrors.get(scanIndex));
+                continue;
+            }
+            for (Sentence sentence : sentences) {
+                errors.addAll(run.validateSentence(sentenceValidator, sentence));
+            }
+        }
         return errors;
     }
 
-    private List<ValidationError> validateSentences(List<Sentence> sentences) {
-        List<ValidationError> errors = new ArrayList<>();
+    /**
+     * Tell whether the errors of a document depend only on that document.
+     * This is not the case when sentence validators keep state over the
+     * documents, that is StatefulValidator and PreProcessor validators.
+     *
+     * @return true when the documents can be validated one by one
+     */
+    public boolean validatesDocumentsIndependently() {
         for (Validator<Sentence> sentenceValidator : sentenceValidators) {
-            for (Sentence sentence : sentences) {
-                errors.addAll(sentenceValidator.validate(sentence));
+            if (sentenceValidator instanceof StatefulValidator
+                    || sentenceValidator instanceof PreProcessor) {
+                return false;
             }
         }
-        return errors;
+        return true;
+    }
+
+    /**
+     * Get the timings and the error counts of the validators, accumulated
+     * over all the validation runs. The validators are timed only when
+     * metrics recording the timers are set to the builder.
+     *
+     * @return metrics of this RedPen
+     */
+    public Metrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -283,6 +522,19 @@ public class RedPen extends Validator<Document> {
         return null;
     }
 
+    /**
+     * Stop the worker threads of the parallel validation. The checks
+     * running when this is called complete, but this RedPen can not check
+     * documents in parallel any more. Nothing happens when the documents
+     * are validated on the calling thread.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
     public void appendSectionValidator(Validator<Section> validator) {
         sectionValidators.add(validator);
     }
@@ -323,6 +575,196 @@ public class RedPen extends Validator<Document> {
                 '}';
     }
 
+    /**
+     * Validators used in a single validation run. Validators keeping state
+     * are forked, so that concurrent runs do not share the state.
+     */
+    private final class Run {
+        private final List<Validator<Document>> validators;
+        private final List<Validator<Section>> sectionValidators;
+        private final List<Validator<Sentence>> sentenceValidators;
+        /* whether the validators are timed, and their timers, only read after the construction */
+        private final boolean timing = metrics.isTiming();
+        private final Map<Validator<?>, Timer> timers = new IdentityHashMap<>();
+        /* sentence cache keys of the forked validators */
+        private final Map<Validator<?>, String> forkedMemoKeys = new IdentityHashMap<>();
+        /* memoized errors of the sentence validators, the shared cache or one for this run */
+        private final SentenceResultCache cache;
+        /* sentence validators reading the characters in a single pass, and their indices */
+        private final List<Validator<Sentence>> characterValidators = new ArrayList<>();
+        private final Map<Validator<?>, Integer> scanIndices = new IdentityHashMap<>();
+        private final CharacterScanner scanner;
+        /* timer of the scans, null without character validators */
+        private final Timer scanTimer;
+
+        Run() {
+            this.validators = fork(RedPen.this.validators);
+            this.sectionValidators = fork(RedPen.this.sectionValidators);
+            this.sentenceValidators = fork(RedPen.this.sentenceValidators);
+            List<CharacterValidator> scanned = new ArrayList<>();
+            for (Validator<Sentence> sentenceValidator : sentenceValidators) {
+                if (sentenceValidator instanceof CharacterValidator) {
+                    scanIndices.put(sentenceValidator, characterValidators.size());
+                    characterValidators.add(sentenceValidator);
+                    scanned.add((CharacterValidator) sentenceValidator);
+                }
+            }
+            this.scanner = new CharacterScanner(scanned);
+            this.scanTimer = characterValidators.isEmpty()
+                    ? null : metrics.getTimer(Metrics.VALIDATOR, CHARACTER_SCAN);
+            this.cache = sentenceCache != null ? sentenceCache
+                    : deduplicateSentences ? new SentenceResultCache(DEDUPLICATION_ENTRIES) : null;
+        }
+
+        /**
+         * Add the hits and misses of the repeated sentences of this run to
+         * the metrics.
+         */
+        private void recordDeduplication() {
+            if (cache != null && cache != sentenceCache) {
+                metrics.getHitCounter(SENTENCE_DEDUPLICATION)
+                        .record(cache.getHitCount(), cache.getMissCount());
+            }
+        }
+
+        private <E> List<Validator<E>> fork(List<Validator<E>> sharedValidators) {
+            List<Validator<E>> forked = new ArrayList<>(sharedValidators.size());
+            for (Validator<E> validator : sharedValidators) {
+                Validator<E> fork = validator.fork();
+                forked.add(fork);
+                // the character validators are timed together in the scan
+                if (timing && !(fork instanceof CharacterValidator)) {
+                    timers.put(fork, metrics.getTimer(Metrics.VALIDATOR, getValidatorName(validator)));
+                }
+                String memoKey = memoKeys.get(validator);
+                if (memoKey != null) {
+                    forkedMemoKeys.put(fork, memoKey);
+                }
+            }
+            return forked;
+        }
+
+        private <E> List<ValidationError> validate(Validator<E> validator, E block) {
+            if (!timing) {
+                return validator.validate(block);
+            }
+            long start = System.nanoTime();
+            List<ValidationError> errors = validator.validate(block);
+            timers.get(validator).record(System.nanoTime() - start, errors.size());
+            return errors;
+        }
+
+        private List<ValidationError> validateSentence(Validator<Sentence> validator,
+                                                       Sentence sentence) {
+            String memoKey = forkedMemoKeys.get(validator);
+            if (memoKey == null) {
+                return validate(validator, sentence);
+            }
+            List<ValidationError> errors = cache.get(memoKey, sentence);
+            if (errors == null) {
+                errors = validate(validator, sentence);
+                cache.put(memoKey, sentence, errors);
+            }
+            return errors;
+        }
+
+        /**
+         * Apply the target character validators to the sentences, reading
+         * each sentence once. The scans are timed together as
+         * {@link #CHARACTER_SCAN}, since the validators share the pass over
+         * the characters.
+         *
+         * @return errors of each character validator, by scan index
+         */
+        private List<List<ValidationError>> scanSentences(
+                List<Sentence> sentences, List<Validator<Sentence>> targetValidators) {
+            int count = characterValidators.size();
+            List<List<ValidationError>> errors = new ArrayList<>(count);
+            List<List<ValidationError>> sentenceErrors = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                errors.add(new ArrayList<>());
+                sentenceErrors.add(new ArrayList<>());
+            }
+            boolean[] targets = new boolean[count];
+            boolean hasTarget = false;
+            for (Validator<Sentence> sentenceValidator : targetValidators) {
+                Integer scanIndex = scanIndices.get(sentenceValidator);
+                if (scanIndex != null) {
+                    targets[scanIndex] = true;
+                    hasTarget = true;
+                }
+            }
+            if (!hasTarget) {
+                return errors;
+            }
+
+            boolean[] active = new boolean[count];
+            for (Sentence sentence : sentences) {
+                int activeCount = 0;
+                for (int i = 0; i < count; i++) {
+                    active[i] = false;
+                    if (!targets[i]) {
+                        continue;
+                    }
+                    String memoKey = forkedMemoKeys.get(characterValidators.get(i));
+                    List<ValidationError> cached = memoKey != null
+                            ? cache.get(memoKey, sentence) : null;
+                    if (cached != null) {
+                        errors.get(i).addAll(cached);
+                    } else {
+                        active[i] = true;
+                        sentenceErrors.get(i).clear();
+                        activeCount++;
+                    }
+                }
+                if (activeCount == 0) {
+                    continue;
+                }
+
+                long start = timing ? System.nanoTime() : 0;
+                scanner.scan(sentence, active, sentenceErrors);
+                long elapsed = timing ? System.nanoTime() - start : 0;
+                int errorCount = 0;
+                for (int i = 0; i < count; i++) {
+                    if (!active[i]) {
+                        continue;
+                    }
+                    Validator<Sentence> validator = characterValidators.get(i);
+                    List<ValidationError> newErrors = sentenceErrors.get(i);
+                    errorCount += newErrors.size();
+                    String memoKey = forkedMemoKeys.get(validator);
+                    if (memoKey != null) {
+                        cache.put(memoKey, sentence, newErrors);
+                    }
+                    errors.get(i).addAll(newErrors);
+                }
+                scanTimer.record(elapsed, errorCount);
+            }
+            return errors;
+        }
+    }
+
+    private static String getValidatorName(Validator<?> validator) {
+        String name = validator.getClass().getSimpleName();
+        return name.endsWith("Validator")
+                ? name.substring(0, name.length() - "Validator".length()) : name;
+    }
+
+    /**
+     * Source of the sections for {@link #checkStreaming(SectionProducer)}.
+     */
+    @FunctionalInterface
+    public interface SectionProducer {
+        /**
+         * Emit all the sections of the input in order. This can be called
+         * more than once and must emit the same sections each time.
+         *
+         * @param consumer receives each section with its document
+         * @throws RedPenException when the input can not be parsed
+         */
+        void produce(BiConsumer<Document, Section> consumer) throws RedPenException;
+    }
+
     /**
      * Builder for {@link cc.redpen.RedPen}.
      */
@@ -334,6 +776,14 @@ public class RedPen extends Validator<Document> {
                 new PrintStream(System.out)
         );
 
+        private int threadCount = 1;
+
+        private Metrics metrics = new Metrics(false);
+
+        private SentenceResultCache sentenceCache;
+
+        private boolean deduplicateSentences;
+
         public Builder setConfiguration(Configuration configuration) {
             this.configuration = configuration;
             return this;
@@ -344,6 +794,64 @@ public class RedPen extends Validator<Document> {
             return this;
         }
 
+        /**
+         * Set the number of threads used to validate documents.
+         * The documents are validated on the caller thread when the count is one (default).
+         *
+         * @param threadCount number of worker threads
+         * @return builder
+         */
+        public Builder setThreadCount(int threadCount) {
+            if (threadCount < 1) {
+                throw new IllegalArgumentException("thread count must be positive: " + threadCount);
+            }
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        /**
+         * Set the metrics to record the validator timings into. This is used
+         * to share the metrics with the parsers. The validators are not
+         * timed by default.
+         *
+         * @param metrics metrics
+         * @return builder
+         */
+        public Builder setMetrics(Metrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Set the cache of sentence validator errors. Sentences already
+         * validated with the same settings are not validated again, so that
+         * checking an edited document validates only the changed sentences.
+         * The cache can be shared by several RedPen instances.
+         *
+         * @param sentenceCache memoized errors of the sentence validators
+         * @return builder
+         */
+        public Builder setSentenceCache(SentenceResultCache sentenceCache) {
+            this.sentenceCache = sentenceCache;
+            return this;
+        }
+
+        /**
+         * Validate the repeated sentences of a check once. The stateless
+         * sentence validators are applied once to each distinct sentence,
+         * and their errors are reported again at each repetition. The hits
+         * are recorded in the metrics as {@link #SENTENCE_DEDUPLICATION}.
+         * This has no effect when a sentence cache is set, since the cache
+         * already skips the repeated sentences.
+         *
+         * @param deduplicateSentences whether to validate repeated sentences once
+         * @return builder
+         */
+        public Builder setSentenceDeduplication(boolean deduplicateSentences) {
+            this.deduplicateSentences = deduplicateSentences;
+            return this;
+        }
+
         public RedPen build() throws RedPenException {
             return new RedPen(this);
         }
@@ -0,0 +1,197 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.model.Sentence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoized errors of sentence validators, used to validate again only the
+ * sentences changed since a previous check.
+ * <p>
+ * The errors are keyed by the validator settings and by the parts of the
+ * sentence validators look at: the content, the links and whether it is
+ * the first sentence of its block. Errors reused for a sentence at another
+ * line are moved to that line. Validators keeping state over sentences
+ * (StatefulValidator and PreProcessor) are never memoized.
+ * <p>
+ * The cache keeps the given number of least recently used results and can
+ * be shared by concurrent checks.
+ */
+public final class SentenceResultCache {
+
+    private final Map<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries number of validator results kept for sentences
+     */
+    public SentenceResultCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("cache size must be positive: " + maxEntries);
+        }
+        this.entries = new LruMap(maxEntries);
+    }
+
+    /**
+     * Get the memoized errors of a validator for a sentence.
+     *
+     * @param validatorKey identifier of the validator and its settings
+     * @param sentence     sentence to validate
+     * @return errors moved to the given sentence, or null when not memoized
+     */
+    List<ValidationError> get(String validatorKey, Sentence sentence) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(new Key(validatorKey, sentence));
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (entry.errors.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int lineShift = sentence.position - entry.position;
+        List<ValidationError> errors = new ArrayList<>(entry.errors.size());
+        for (ValidationError error : entry.errors) {
+            errors.add(error.moveTo(sentence, lineShift));
+        }
+        return errors;
+    }
+
+    /**
+     * Memoize the errors of a validator for a sentence.
+     *
+     * @param validatorKey identifier of the validator and its settings
+     * @param sentence     validated sentence
+     * @param errors       errors found in the sentence
+     */
+    void put(String validatorKey, Sentence sentence, List<ValidationError> errors) {
+        Entry entry = new Entry(sentence.position, errors.isEmpty()
+                ? Collections.emptyList() : new ArrayList<>(errors));
+        synchronized (entries) {
+            entries.put(new Key(validatorKey, sentence), entry);
+        }
+    }
+
+    /**
+     * Remove all the memoized errors.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get the number of memoized validator results.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Map in access order dropping the least recently used entries over
+     * its capacity.
+     */
+    private static final class LruMap extends LinkedHashMap<Key, Entry> {
+        private static final long serialVersionUID = 1L;
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class Key {
+        private final String validatorKey;
+        private final String content;
+        private final boolean isFirstSentence;
+        private final List<String> links;
+        private final int hash;
+
+        Key(String validatorKey, Sentence sentence) {
+            this.validatorKey = validatorKey;
+            this.content = sentence.content;
+            this.isFirstSentence = sentence.isFirstSentence;
+            this.links = sentence.links.isEmpty()
+                    ? Collections.emptyList() : new ArrayList<>(sentence.links);
+            int h = validatorKey.hashCode();
+            h = 31 * h + content.hashCode();
+            h = 31 * h + (isFirstSentence ? 1 : 0);
+            h = 31 * h + links.hashCode();
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return hash == that.hash
+                    && isFirstSentence == that.isFirstSentence
+                    && content.equals(that.content)
+                    && validatorKey.equals(that.validatorKey)
+                    && links.equals(that.links);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final int position;
+        private final List<ValidationError> errors;
+
+        Entry(int position, List<ValidationError> errors) {
+            this.position = position;
+            this.errors = errors;
+        }
+    }
+}
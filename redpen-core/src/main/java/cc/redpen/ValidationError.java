@@ -61,6 +61,42 @@ public final class ValidationError implements java.io.Serializable {
         this.sentence = Optional.of(sentenceWithError);
     }
 
+    private ValidationError(String validatorName, String errorMessage,
+                            int errorLineNumber, Optional<Sentence> sentenceWithError) {
+        this.lineNumber = errorLineNumber;
+        this.message = errorMessage;
+        this.validatorName = validatorName;
+        this.sentence = sentenceWithError;
+    }
+
+    /**
+     * Create an error read back from a result cache.
+     *
+     * @param validatorName name of the validator as returned by {@link #getValidatorName()}
+     * @param errorMessage  error message
+     * @param lineNumber    error position (line number)
+     * @param sentence      sentence containing the error, can be null
+     * @return restored error
+     */
+    static ValidationError restore(String validatorName, String errorMessage,
+                                   int lineNumber, Sentence sentence) {
+        return new ValidationError(validatorName, errorMessage, lineNumber,
+                Optional.ofNullable(sentence));
+    }
+
+    /**
+     * Copy this error found in a sentence to another sentence with the same
+     * content, used to reuse memoized errors.
+     *
+     * @param newSentence sentence the copy refers to
+     * @param lineShift   distance between the lines of the sentences
+     * @return copy of this error without the file name
+     */
+    ValidationError moveTo(Sentence newSentence, int lineShift) {
+        return new ValidationError(validatorName, message, lineNumber + lineShift,
+                sentence.isPresent() ? Optional.of(newSentence) : Optional.empty());
+    }
+
     /**
      * Get line number in which the error occurs.
      *
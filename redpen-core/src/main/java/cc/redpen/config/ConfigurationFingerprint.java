@@ -0,0 +1,133 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.config;
+
+import cc.redpen.util.Sha256;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Digest of the settings which change the validation results, used to key
+ * cached results.
+ * <p>
+ * The digest covers the language, the symbols and the validator settings.
+ * Attribute values naming an existing file, such as user dictionaries,
+ * also add the size and the modification time of the file, so that editing
+ * a dictionary changes the fingerprint. The version of RedPen and the size
+ * and the modification time of its jar are covered too, since an upgrade
+ * can change the validators and the bundled dictionaries.
+ */
+public final class ConfigurationFingerprint {
+
+    private static final String BUILD = build();
+
+    private ConfigurationFingerprint() {
+        super();
+    }
+
+    /**
+     * Compute the fingerprint of a whole configuration.
+     *
+     * @param configuration configuration
+     * @return hex encoded SHA-256 digest
+     */
+    public static String of(Configuration configuration) {
+        StringBuilder str = new StringBuilder(BUILD);
+        appendSymbols(configuration.getSymbolTable(), str);
+        for (ValidatorConfiguration validatorConfiguration : configuration.getValidatorConfigs()) {
+            appendValidator(validatorConfiguration, str);
+        }
+        return Sha256.hex(str);
+    }
+
+    /**
+     * Compute the fingerprint of one validator and the symbols it is given.
+     *
+     * @param validatorConfiguration validator settings
+     * @param symbolTable            symbols
+     * @return hex encoded SHA-256 digest
+     */
+    public static String of(ValidatorConfiguration validatorConfiguration, SymbolTable symbolTable) {
+        StringBuilder str = new StringBuilder(BUILD);
+        appendSymbols(symbolTable, str);
+        appendValidator(validatorConfiguration, str);
+        return Sha256.hex(str);
+    }
+
+    /**
+     * Describe the running RedPen: the implementation version from the jar
+     * manifest, and the size and modification time of the jar.
+     */
+    private static String build() {
+        StringBuilder str = new StringBuilder("build=");
+        str.append(ConfigurationFingerprint.class.getPackage().getImplementationVersion());
+        try {
+            CodeSource codeSource = ConfigurationFingerprint.class.getProtectionDomain().getCodeSource();
+            if (codeSource != null && codeSource.getLocation() != null) {
+                File jar = new File(codeSource.getLocation().toURI());
+                if (jar.isFile()) {
+                    str.append('\0').append(jar.length()).append('@').append(jar.lastModified());
+                }
+            }
+        } catch (SecurityException | URISyntaxException | IllegalArgumentException e) {
+            // the version alone identifies the build
+        }
+        return str.append('\n').toString();
+    }
+
+    private static void appendSymbols(SymbolTable symbolTable, StringBuilder str) {
+        if (symbolTable == null) {
+            str.append("no symbols\n");
+            return;
+        }
+        str.append("lang=").append(symbolTable.getLang()).append('\n');
+        for (Symbol symbol : new TreeMap<>(symbolTable.getSymbolDictionary()).values()) {
+            str.append("symbol=").append(symbol.getName())
+                    .append('\0').append(symbol.getValue())
+                    .append('\0').append(symbol.isNeedBeforeSpace())
+                    .append('\0').append(symbol.isNeedAfterSpace());
+            for (String invalidSymbol : new TreeSet<>(symbol.getInvalidSymbols())) {
+                str.append('\0').append(invalidSymbol);
+            }
+            str.append('\n');
+        }
+    }
+
+    private static void appendValidator(ValidatorConfiguration validatorConfiguration,
+                                        StringBuilder str) {
+        str.append("validator=").append(validatorConfiguration.getConfigurationName()).append('\n');
+        for (String name : new TreeSet<>(validatorConfiguration.getAttributes())) {
+            String value = validatorConfiguration.getAttribute(name);
+            str.append("attribute=").append(name).append('\0').append(value);
+            File file = new File(value);
+            if (file.isFile()) {
+                str.append('\0').append(file.length()).append('@').append(file.lastModified());
+            }
+            str.append('\n');
+        }
+        for (ValidatorConfiguration child : validatorConfiguration.getChildren()) {
+            appendValidator(child, str);
+        }
+        str.append("end\n");
+    }
+
+}
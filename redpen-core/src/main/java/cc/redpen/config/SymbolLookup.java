@@ -0,0 +1,152 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Symbols of a table indexed by the first character of their texts, so that
+ * the symbols in a sentence are found in one pass whatever the size of the
+ * table. The index is a table of pages of 256 characters, and only the pages
+ * containing some first characters are allocated.
+ */
+public final class SymbolLookup {
+    private static final Entry[] NONE = new Entry[0];
+
+    /**
+     * Lookup without any symbol.
+     */
+    public static final SymbolLookup EMPTY = new SymbolLookup(Collections.emptyList());
+
+    private final Entry[][][] pages = new Entry[256][][];
+    private final String firstCharacters;
+
+    /**
+     * Symbol found with a text, either its value or one of its invalid characters.
+     */
+    public static final class Entry {
+        private final Symbol symbol;
+        private final String text;
+
+        private Entry(Symbol symbol, String text) {
+            this.symbol = symbol;
+            this.text = text;
+        }
+
+        public Symbol getSymbol() {
+            return symbol;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    private SymbolLookup(List<Entry> entries) {
+        StringBuilder chars = new StringBuilder();
+        for (Entry entry : entries) {
+            char ch = entry.text.charAt(0);
+            Entry[][] page = pages[ch >>> 8];
+            if (page == null) {
+                page = new Entry[256][];
+                pages[ch >>> 8] = page;
+            }
+            Entry[] found = page[ch & 0xff];
+            if (found == null) {
+                found = new Entry[]{entry};
+                chars.append(ch);
+            } else {
+                found = appendEntry(found, entry);
+            }
+            page[ch & 0xff] = found;
+        }
+        firstCharacters = chars.toString();
+    }
+
+    /**
+     * Index the values of the symbols of a table.
+     *
+     * @param table  symbol table
+     * @param filter selects the symbols to index
+     * @return lookup of the symbol values
+     */
+    public static SymbolLookup ofValues(SymbolTable table, Predicate<Symbol> filter) {
+        List<Entry> entries = new ArrayList<>();
+        for (String name : table.getNames()) {
+            Symbol symbol = table.getSymbol(name);
+            if (filter.test(symbol) && !symbol.getValue().isEmpty()) {
+                entries.add(new Entry(symbol, symbol.getValue()));
+            }
+        }
+        return new SymbolLookup(entries);
+    }
+
+    /**
+     * Index the invalid characters of the symbols of a table.
+     *
+     * @param table symbol table
+     * @return lookup of the invalid characters
+     */
+    public static SymbolLookup ofInvalidSymbols(SymbolTable table) {
+        List<Entry> entries = new ArrayList<>();
+        for (String name : table.getNames()) {
+            Symbol symbol = table.getSymbol(name);
+            for (String invalidChar : symbol.getInvalidSymbols()) {
+                if (!invalidChar.isEmpty()) {
+                    entries.add(new Entry(symbol, invalidChar));
+                }
+            }
+        }
+        return new SymbolLookup(entries);
+    }
+
+    /**
+     * Get the entries whose text starts with a character. The returned
+     * array is shared and must not be modified.
+     *
+     * @param ch first character
+     * @return entries in the order of the symbol table, empty when none
+     */
+    public Entry[] get(char ch) {
+        Entry[][] page = pages[ch >>> 8];
+        if (page == null) {
+            return NONE;
+        }
+        Entry[] entries = page[ch & 0xff];
+        return entries == null ? NONE : entries;
+    }
+
+    /**
+     * Get the first characters of the indexed texts.
+     *
+     * @return distinct first characters
+     */
+    public String getFirstCharacters() {
+        return firstCharacters;
+    }
+
+    private static Entry[] appendEntry(Entry[] entries, Entry entry) {
+        Entry[] appended = new Entry[entries.length + 1];
+        System.arraycopy(entries, 0, appended, 0, entries.length);
+        appended[entries.length] = entry;
+        return appended;
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.distributor;
+
+import cc.redpen.ValidationError;
+import cc.redpen.formatter.Formatter;
+import cc.redpen.formatter.PlainFormatter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * An implementation of ResultDistributor which formats the errors on the
+ * calling thread and writes them to the output stream on a background
+ * thread.
+ * <p>
+ * The formatted errors are collected into batches. Full batches are handed
+ * to the writer thread through a bounded queue, so that a slow output
+ * blocks the validation instead of using up the memory. The header, the
+ * errors and the footer are written in the order they are flushed, and
+ * {@link #flushFooter()} returns only after everything is written to the
+ * output stream. {@link #close()} stops the writer thread.
+ */
+public class AsyncResultDistributor implements ResultDistributor {
+    private static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+    private static final int DEFAULT_QUEUE_CAPACITY = 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final Object STOP = new Object();
+
+    private final int batchSize;
+    private final BlockingQueue<Object> queue;
+    private final Thread writerThread;
+    private Formatter myFormatter;
+    private StringBuilder batch;
+    private volatile IOException writeError;
+
+    /**
+     * Constructor.
+     *
+     * @param os output stream
+     */
+    public AsyncResultDistributor(OutputStream os) {
+        this(os, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param os            output stream
+     * @param batchSize     number of characters collected before handing them to the writer
+     * @param queueCapacity number of batches waiting to be written before flushing blocks
+     */
+    public AsyncResultDistributor(OutputStream os, int batchSize, int queueCapacity) {
+        if (os == null) {
+            throw new IllegalArgumentException("argument OutputStream is null");
+        }
+        if (batchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("batch size and queue capacity must be positive");
+        }
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batch = new StringBuilder(batchSize);
+        this.myFormatter = new PlainFormatter();
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(os, StandardCharsets.UTF_8), batchSize);
+        this.writerThread = new Thread(() -> write(writer), "redpen-result-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    private void write(Writer writer) {
+        while (true) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                if (item == STOP || item instanceof CountDownLatch) {
+                    writer.flush();
+                } else if (writeError == null) {
+                    writer.write((String) item);
+                }
+            } catch (IOException e) {
+                // keep draining the queue so that the validation does not block
+                writeError = e;
+            }
+            if (item == STOP) {
+                return;
+            }
+            if (item instanceof CountDownLatch) {
+                ((CountDownLatch) item).countDown();
+            }
+        }
+    }
+
+    /**
+     * Output given validation error.
+     *
+     * @param err validation error
+     */
+    @Override
+    public synchronized int flushResult(ValidationError err) {
+        if (err == null) {
+            throw new IllegalArgumentException("argument ValidationError is null");
+        }
+        try {
+            myFormatter.writeError(err, batch);
+        } catch (IOException e) {
+            // StringBuilder never throws IOException
+            throw new IllegalStateException(e);
+        }
+        batch.append(LINE_SEPARATOR);
+        if (batch.length() >= batchSize) {
+            enqueue(batch.toString());
+            batch.setLength(0);
+        }
+        return writeError == null ? 0 : 1;
+    }
+
+    @Override
+    public synchronized void flushHeader() {
+        String header = myFormatter.header();
+        if (header != null) {
+            batch.append(header).append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Output the footer and wait until all the results are written.
+     */
+    @Override
+    public synchronized void flushFooter() {
+        String footer = myFormatter.footer();
+        if (footer != null) {
+            batch.append(footer).append(LINE_SEPARATOR);
+        }
+        if (batch.length() > 0) {
+            enqueue(batch.toString());
+            batch.setLength(0);
+        }
+        CountDownLatch written = new CountDownLatch(1);
+        enqueue(written);
+        try {
+            written.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the results", e);
+        }
+        if (writeError != null) {
+            throw new IllegalStateException("Failed to write the results: "
+                    + writeError.getMessage(), writeError);
+        }
+    }
+
+    private void enqueue(Object item) {
+        if (!writerThread.isAlive()) {
+            throw new IllegalStateException("Result writer is not running");
+        }
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the results", e);
+        }
+    }
+
+    /**
+     * Write the results handed to the writer thread and stop the thread.
+     * Calling this method more than once has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (!writerThread.isAlive()) {
+            return;
+        }
+        enqueue(STOP);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stopping the result writer", e);
+        }
+    }
+
+    @Override
+    public synchronized void setFormatter(Formatter formatter) {
+        if (formatter == null) {
+            throw new IllegalArgumentException("argument formatter is null");
+        }
+        this.myFormatter = formatter;
+    }
+}
@@ -23,7 +23,7 @@ import cc.redpen.formatter.Formatter;
 /**
  * ResultDistributor flush the errors reported from Validators.
  */
-public interface ResultDistributor {
+public interface ResultDistributor extends AutoCloseable {
 
     /**
      * Flush header block of semi-structured format.
@@ -49,4 +49,12 @@ public interface ResultDistributor {
      * @param formatter
      */
     void setFormatter(Formatter formatter);
+
+    /**
+     * Release the resources used to write the results. The output stream
+     * itself is not closed.
+     */
+    @Override
+    default void close() {
+    }
 }
@@ -46,6 +46,21 @@ public final class ResultDistributorFactory {
      */
     public static ResultDistributor createDistributor(Formatter.Type outputFormat,
                                                       OutputStream output) {
+        return createDistributor(outputFormat, output, false);
+    }
+
+    /**
+     * Create ResultDistributor object.
+     *
+     * @param outputFormat syntax of output
+     * @param output       output stream
+     * @param asynchronous write the results in batches on a background thread
+     *                     instead of flushing each result on the calling thread
+     * @return ResultDistributor object when succeeded to create, null otherwise
+     */
+    public static ResultDistributor createDistributor(Formatter.Type outputFormat,
+                                                      OutputStream output,
+                                                      boolean asynchronous) {
         if (outputFormat == null) {
             LOG.error("Specified output format is null...");
             return null;
@@ -55,7 +70,8 @@ public final class ResultDistributorFactory {
             LOG.error("Output stream is null...");
             return null;
         }
-        ResultDistributor distributor = new DefaultResultDistributor(output);
+        ResultDistributor distributor = asynchronous
+                ? new AsyncResultDistributor(output) : new DefaultResultDistributor(output);
 
         LOG.info("Creating Distributor...");
         try {
@@ -68,10 +84,12 @@ public final class ResultDistributorFactory {
                     break;
                 default:
                     LOG.error("No specified distributor...");
+                    distributor.close();
                     return null;
             }
         } catch (RedPenException e) {
             LOG.error(e.getMessage());
+            distributor.close();
             return null;
         }
         return distributor;
@@ -19,6 +19,8 @@ package cc.redpen.formatter;
 
 import cc.redpen.ValidationError;
 
+import java.io.IOException;
+
 /**
  * This interface is for classes to define output format of
  * reported ValidationError objects.
@@ -32,6 +34,19 @@ public interface Formatter {
      */
     String convertError(ValidationError error);
 
+    /**
+     * Write the formatted ValidationError into the given output. Formatters
+     * able to write the error piece by piece override this method to save
+     * building an intermediate string.
+     *
+     * @param error object containing file and line number information.
+     * @param out   output to append the error message to
+     * @throws IOException when failed to write to the output
+     */
+    default void writeError(ValidationError error, Appendable out) throws IOException {
+        out.append(convertError(error));
+    }
+
     /**
      * Return the header block of semi-structured format.
      *
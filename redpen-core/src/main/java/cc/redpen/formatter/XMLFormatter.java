@@ -19,29 +19,21 @@ package cc.redpen.formatter;
 
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Text;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.StringWriter;
+import java.io.IOException;
+import java.util.Optional;
 
 /**
  * XML Output formatter.
+ * <p>
+ * The errors are written with a hand-written escaper instead of a DOM
+ * and a Transformer per error. The output is the same as the one of the
+ * JDK identity transformer: no XML declaration, no indentation, empty
+ * elements closed as {@code <name/>}, and the characters the serializer
+ * escapes in text nodes written as entities or character references.
  */
 public class XMLFormatter implements Formatter {
 
-    private static final Logger LOG =
-            LoggerFactory.getLogger(XMLFormatter.class);
-    private DocumentBuilder db;
-
     /**
      * Constructor.
      *
@@ -49,81 +41,99 @@ public class XMLFormatter implements Formatter {
      */
     public XMLFormatter() throws RedPenException {
         super();
-        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        try {
-            this.db = dbf.newDocumentBuilder();
-        } catch (ParserConfigurationException e) {
-            throw new RedPenException(e.getMessage());
-        }
     }
 
     @Override
     public String convertError(ValidationError error) {
-        // create dom
-        Document doc = db.newDocument();
-        Element errorElement = doc.createElement("error");
-        doc.appendChild(errorElement);
-
-
-        Element validatorElement = doc.createElement("validator");
-        errorElement.appendChild(validatorElement);
-        Text validator = doc.createTextNode(error.getValidatorName());
-        validatorElement.appendChild(validator);
-
-        Element contentElement = doc.createElement("message");
-        errorElement.appendChild(contentElement);
-        Text content = doc.createTextNode(error.getMessage());
-        contentElement.appendChild(content);
-
-        error.getFileName().ifPresent(e -> {
-            Element fileNameElement = doc.createElement("file");
-            errorElement.appendChild(fileNameElement);
-            Text fileName = doc.createTextNode(e);
-            fileNameElement.appendChild(fileName);
-        });
-
-        Element lineNumberElement = doc.createElement("lineNum");
-        errorElement.appendChild(lineNumberElement);
-        Text lineNum = doc.createTextNode(Integer.toString(error.getLineNumber()));
-        lineNumberElement.appendChild(lineNum);
-
-        error.getSentence().ifPresent(e -> {
-            Element sentenceElement = doc.createElement("sentence");
-            errorElement.appendChild(sentenceElement);
-            sentenceElement.appendChild(doc.createTextNode(e.content));
-        });
-
-        // create a transformer
-        Transformer transformer = createTransformer();
-        if (transformer == null) {
-            throw new IllegalStateException("Failed to create XML Transformer");
+        StringBuilder str = new StringBuilder(256);
+        try {
+            writeError(error, str);
+        } catch (IOException e) {
+            // StringBuilder never throws IOException
+            throw new IllegalStateException(e);
         }
+        return str.toString();
+    }
 
-        // convert the result dom into a string
-        StringWriter writer = new StringWriter();
-        StreamResult result = new StreamResult(writer);
-        DOMSource source = new DOMSource(doc);
-        try {
-            transformer.transform(source, result);
-        } catch (TransformerException e) {
-            e.printStackTrace();
+    @Override
+    public void writeError(ValidationError error, Appendable out) throws IOException {
+        out.append("<error>");
+        writeElement("validator", error.getValidatorName(), out);
+        writeElement("message", error.getMessage(), out);
+        Optional<String> fileName = error.getFileName();
+        if (fileName.isPresent()) {
+            writeElement("file", fileName.get(), out);
         }
-        return writer.toString();
+        writeElement("lineNum", Integer.toString(error.getLineNumber()), out);
+        if (error.getSentence().isPresent()) {
+            writeElement("sentence", error.getSentence().get().content, out);
+        }
+        out.append("</error>");
     }
 
-    private Transformer createTransformer() {
-        TransformerFactory tf;
-        tf = TransformerFactory.newInstance();
+    private static void writeElement(String name, String text, Appendable out)
+            throws IOException {
+        if (text == null || text.isEmpty()) {
+            out.append('<').append(name).append("/>");
+            return;
+        }
+        out.append('<').append(name).append('>');
+        escape(text, out);
+        out.append("</").append(name).append('>');
+    }
 
-        Transformer transformer;
-        try {
-            transformer = tf.newTransformer();
-        } catch (TransformerConfigurationException e) {
-            LOG.error(e.getMessage());
-            return null;
+    /**
+     * Escape the text content of an element. Runs of characters written
+     * as they are are appended at once.
+     *
+     * @param text text to escape
+     * @param out  output to append the escaped text to
+     * @throws IOException when failed to write to the output
+     */
+    private static void escape(String text, Appendable out) throws IOException {
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String entity;
+            int codePoint;
+            if (c == '&') {
+                entity = "&amp;";
+                codePoint = -1;
+            } else if (c == '<') {
+                entity = "&lt;";
+                codePoint = -1;
+            } else if (c == '>') {
+                entity = "&gt;";
+                codePoint = -1;
+            } else if ((c < 0x20 && c != '\n' && c != '\t')
+                    || (c >= 0x7f && c <= 0x9f)) {
+                entity = null;
+                codePoint = c;
+            } else if (Character.isSurrogate(c)) {
+                entity = null;
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+                } else {
+                    codePoint = c;
+                }
+            } else {
+                continue;
+            }
+
+            out.append(text, start, i);
+            if (entity != null) {
+                out.append(entity);
+            } else {
+                out.append("&#").append(Integer.toString(codePoint)).append(';');
+                if (codePoint > Character.MAX_VALUE) {
+                    i++;
+                }
+            }
+            start = i + 1;
         }
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        return transformer;
+        out.append(text, start, length);
     }
 
     @Override
@@ -0,0 +1,104 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hits and misses of a cache, such as the cache of repeated sentences
+ * used in a validation run.
+ */
+public final class HitCounter {
+    private final String name;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    HitCounter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Record the lookups of a cache.
+     *
+     * @param hitCount  number of lookups finding a value
+     * @param missCount number of lookups finding nothing
+     */
+    public void record(long hitCount, long missCount) {
+        if (hitCount < 0 || missCount < 0) {
+            throw new IllegalArgumentException("counts must not be negative: "
+                    + hitCount + ", " + missCount);
+        }
+        hits.add(hitCount);
+        misses.add(missCount);
+    }
+
+    /**
+     * Get the name of the cache.
+     *
+     * @return name of the cache
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of lookups finding a value.
+     *
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups finding nothing.
+     *
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the ratio of the lookups finding a value.
+     *
+     * @return hit rate between 0 and 1, 0 when nothing is recorded
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long lookups = hitCount + getMissCount();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Clear the recorded values.
+     */
+    public void reset() {
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "HitCounter{" +
+                "name='" + name + '\'' +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                '}';
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the timers of the validators and the parsers, and of the hit
+ * counters of the caches.
+ * <p>
+ * Timing every validator call costs two clock reads and a histogram update,
+ * so it can be turned off. Metrics without timing hand out disabled timers
+ * and list no timers, but still count the cache hits, which are recorded
+ * once per check.
+ */
+public final class Metrics {
+    /**
+     * Kind of the validator timers.
+     */
+    public static final String VALIDATOR = "validator";
+    /**
+     * Kind of the parser timers.
+     */
+    public static final String PARSER = "parser";
+
+    private final boolean timing;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HitCounter> hitCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of metrics recording the timers.
+     */
+    public Metrics() {
+        this(true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param timing record the elapsed time of the validators and the parsers
+     */
+    public Metrics(boolean timing) {
+        this.timing = timing;
+    }
+
+    /**
+     * Check whether the elapsed times are recorded.
+     *
+     * @return true when the timers are recorded
+     */
+    public boolean isTiming() {
+        return timing;
+    }
+
+    /**
+     * Get the timer of a component, creating it at the first call.
+     *
+     * @param kind kind of the component, such as {@link #VALIDATOR}
+     * @param name name of the component
+     * @return timer of the component, a disabled one when the timers are not recorded
+     */
+    public Timer getTimer(String kind, String name) {
+        if (!timing) {
+            return new Timer(kind, name, false);
+        }
+        String key = kind + ':' + name;
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> new Timer(kind, name));
+        }
+        return timer;
+    }
+
+    /**
+     * Get all the timers, sorted by kind and then by total time.
+     *
+     * @return timers
+     */
+    public List<Timer> getTimers() {
+        List<Timer> sorted = new ArrayList<>(timers.values());
+        sorted.sort(Comparator.comparing(Timer::getKind)
+                .thenComparing(Comparator.comparingLong(Timer::getTotalNanos).reversed())
+                .thenComparing(Timer::getName));
+        return sorted;
+    }
+
+    /**
+     * Get the hit counter of a cache, creating it at the first call.
+     *
+     * @param name name of the cache
+     * @return hit counter of the cache
+     */
+    public HitCounter getHitCounter(String name) {
+        HitCounter counter = hitCounters.get(name);
+        if (counter == null) {
+            counter = hitCounters.computeIfAbsent(name, HitCounter::new);
+        }
+        return counter;
+    }
+
+    /**
+     * Get all the hit counters, sorted by name.
+     *
+     * @return hit counters
+     */
+    public List<HitCounter> getHitCounters() {
+        List<HitCounter> sorted = new ArrayList<>(hitCounters.values());
+        sorted.sort(Comparator.comparing(HitCounter::getName));
+        return sorted;
+    }
+
+    /**
+     * Clear the recorded values of all the timers and hit counters.
+     */
+    public void reset() {
+        for (Timer timer : timers.values()) {
+            timer.reset();
+        }
+        for (HitCounter counter : hitCounters.values()) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Format the timers as a table, followed by the hit counters when some
+     * cache is used.
+     *
+     * @return summary of the timers
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%-10s %-30s %10s %12s %10s %10s %10s %8s%n",
+                "kind", "name", "count", "total(ms)", "mean(us)", "p50(us)", "p99(us)", "errors"));
+        for (Timer timer : getTimers()) {
+            builder.append(String.format("%-10s %-30s %10d %12.3f %10.3f %10.3f %10.3f %8d%n",
+                    timer.getKind(),
+                    timer.getName(),
+                    timer.getCount(),
+                    timer.getTotalNanos() / 1e6,
+                    timer.getMeanNanos() / 1e3,
+                    timer.getPercentileNanos(50) / 1e3,
+                    timer.getPercentileNanos(99) / 1e3,
+                    timer.getErrorCount()));
+        }
+        List<HitCounter> counters = getHitCounters();
+        if (!counters.isEmpty()) {
+            builder.append(String.format("%-10s %-30s %10s %12s %10s%n",
+                    "kind", "name", "hits", "misses", "hit(%)"));
+            for (HitCounter counter : counters) {
+                builder.append(String.format("%-10s %-30s %10d %12d %10.1f%n",
+                        "cache",
+                        counter.getName(),
+                        counter.getHitCount(),
+                        counter.getMissCount(),
+                        counter.getHitRate() * 100));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation count, elapsed time and produced errors of a validator or
+ * a parser.
+ * <p>
+ * Recording only increments striped counters, so the threads validating in
+ * parallel do not block each other. The elapsed times are kept in a
+ * histogram with four buckets per power of two, so that percentiles are
+ * reported with at most 25% relative error. A disabled timer ignores the
+ * recorded invocations.
+ */
+public final class Timer {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+
+    private final String kind;
+    private final String name;
+    private final boolean enabled;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder[] histogram;
+
+    Timer(String kind, String name) {
+        this(kind, name, true);
+    }
+
+    Timer(String kind, String name, boolean enabled) {
+        this.kind = kind;
+        this.name = name;
+        this.enabled = enabled;
+        this.histogram = new LongAdder[enabled ? BUCKETS : 0];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record an invocation.
+     *
+     * @param nanos      elapsed time in nanoseconds
+     * @param errorCount number of errors produced by the invocation
+     */
+    public void record(long nanos, int errorCount) {
+        if (!enabled) {
+            return;
+        }
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        count.increment();
+        totalNanos.add(nanos);
+        if (errorCount > 0) {
+            errors.add(errorCount);
+        }
+        histogram[bucket(nanos)].increment();
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + (bucket & (SUB_BUCKETS - 1)) * width;
+        return lower + width - 1;
+    }
+
+    /**
+     * Check whether the recorded invocations are counted. Callers can skip
+     * reading the clock when they are not.
+     *
+     * @return true when the invocations are counted
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the kind of the measured component, such as "validator".
+     *
+     * @return kind of the component
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the name of the measured component.
+     *
+     * @return name of the component
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of invocations.
+     *
+     * @return number of invocations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the total elapsed time.
+     *
+     * @return total elapsed time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Get the number of errors produced by all the invocations.
+     *
+     * @return number of errors
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Get the mean elapsed time of an invocation.
+     *
+     * @return mean elapsed time in nanoseconds, 0 when nothing is recorded
+     */
+    public long getMeanNanos() {
+        long invocations = getCount();
+        return invocations == 0 ? 0 : getTotalNanos() / invocations;
+    }
+
+    /**
+     * Get a percentile of the elapsed time of an invocation.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the percentile in nanoseconds, 0 when nothing is recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = new long[histogram.length];
+        long total = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            counts[i] = histogram[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Clear the recorded values. Invocations recorded concurrently may be
+     * partially cleared.
+     */
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        errors.reset();
+        for (LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Timer{" +
+                "kind='" + kind + '\'' +
+                ", name='" + name + '\'' +
+                ", count=" + getCount() +
+                ", totalNanos=" + getTotalNanos() +
+                ", errors=" + getErrorCount() +
+                '}';
+    }
+}
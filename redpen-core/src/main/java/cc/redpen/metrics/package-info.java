@@ -0,0 +1,4 @@
+/**
+ * Timing and error counts of the validators and the parsers.
+ */
+package cc.redpen.metrics;
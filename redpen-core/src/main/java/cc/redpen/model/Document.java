@@ -106,6 +106,14 @@ public final class Document implements Iterable<Section> {
         this.fileName = name;
     }
 
+    /**
+     * Remove all the sections. Used by the streaming builder to release
+     * sections which are already handed out.
+     */
+    void clearSections() {
+        sections.clear();
+    }
+
     @Override
     public Iterator<Section> iterator() {
         return sections.iterator();
@@ -86,6 +86,7 @@ public final class DocumentCollection implements Iterable<Document> {
      */
     public static class Builder {
         private DocumentCollection collection;
+        private SentenceArena arena;
 
         public Builder() {
             this.collection = new DocumentCollection();
@@ -100,6 +101,18 @@ public final class DocumentCollection implements Iterable<Document> {
             return collection;
         }
 
+        /**
+         * Store the sentences of the paragraphs and the list elements added
+         * from now on in an arena, to reduce the memory used by large inputs.
+         *
+         * @param arena arena keeping the sentences
+         * @return builder
+         */
+        public Builder setSentenceArena(SentenceArena arena) {
+            this.arena = arena;
+            return this;
+        }
+
         /**
          * Return last Document object.
          * NOTE: This method is created to follow the Parser class api.
@@ -207,7 +220,7 @@ public final class DocumentCollection implements Iterable<Document> {
             }
             Section lastSection = lastDocument.getSection(
                     lastDocument.getNumberOfSections() - 1);
-            lastSection.appendParagraph(new Paragraph());
+            lastSection.appendParagraph(arena == null ? new Paragraph() : new Paragraph(arena));
             return this;
         }
 
@@ -247,10 +260,10 @@ public final class DocumentCollection implements Iterable<Document> {
             }
             Paragraph lastParagraph = lastSection.getParagraph(
                     lastSection.getNumberOfParagraphs() - 1);
-            lastParagraph.appendSentence(sentence);
-            if (lastParagraph.getNumberOfSentences() == 1) {
+            if (lastParagraph.getNumberOfSentences() == 0) {
                 sentence.isFirstSentence = true;
             }
+            lastParagraph.appendSentence(sentence);
             return this;
         }
 
@@ -275,7 +288,9 @@ public final class DocumentCollection implements Iterable<Document> {
         }
 
         /**
-         * Add list element to the last list block.
+         * Add list element to the last list block. When a sentence arena is
+         * set, the contents are copied into it, so that sentences added to
+         * the list afterwards are not part of the element.
          *
          * @param level    indentation level
          * @param contents content of list element
@@ -292,7 +307,7 @@ public final class DocumentCollection implements Iterable<Document> {
             }
             Section lastSection = lastDocument.getSection(
                     lastDocument.getNumberOfSections() - 1);
-            lastSection.appendListElement(level, contents);
+            lastSection.appendListElement(level, arena == null ? contents : arena.copyOf(contents));
             return this;
         }
 
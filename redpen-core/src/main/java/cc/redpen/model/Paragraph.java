@@ -34,6 +34,16 @@ public final class Paragraph {
         sentences = new ArrayList<>();
     }
 
+    /**
+     * Constructor of a paragraph storing its sentences in an arena.
+     *
+     * @param arena arena keeping the sentences
+     */
+    public Paragraph(SentenceArena arena) {
+        super();
+        sentences = arena.newList();
+    }
+
     /**
      * Get the iterator of sentences.
      *
@@ -285,6 +285,15 @@ public final class Section {
         }
     }
 
+    /**
+     * Remove the paragraphs and lists, keeping the header and the links to
+     * the other sections.
+     */
+    void clearContents() {
+        paragraphs.clear();
+        lists.clear();
+    }
+
     /**
      * Append List.
      */
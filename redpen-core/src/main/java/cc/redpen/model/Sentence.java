@@ -18,6 +18,8 @@
 package cc.redpen.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -44,6 +46,9 @@ public final class Sentence {
      */
     public boolean isFirstSentence;
 
+    /* words of the content, computed on the first call of getWords() */
+    private Words words;
+
     /**
      * Constructor.
      *
@@ -58,4 +63,70 @@ public final class Sentence {
         this.links = new ArrayList<>();
     }
 
+    /**
+     * Get the words of the content, separated by ASCII spaces the same way
+     * as {@code content.split(" ")}. The words are computed once and shared
+     * by the validators until the content is replaced.
+     *
+     * @return unmodifiable list of words
+     */
+    public List<String> getWords() {
+        return words().list;
+    }
+
+    /**
+     * Start offsets of the words returned by {@link #getWords()} in the content.
+     *
+     * @return unmodifiable list of offsets
+     */
+    public List<Integer> getWordOffsets() {
+        return words().offsets;
+    }
+
+    private Words words() {
+        Words current = words;
+        if (current == null || current.content != content) {
+            current = new Words(content);
+            words = current;
+        }
+        return current;
+    }
+
+    /**
+     * Words of a content. Immutable, so that a sentence read by several
+     * threads at worst tokenizes its content more than once.
+     */
+    private static final class Words {
+        private final String content;
+        private final List<String> list;
+        private final List<Integer> offsets;
+
+        Words(String content) {
+            this.content = content;
+            if (content.isEmpty()) {
+                list = Collections.singletonList(content);
+                offsets = Collections.singletonList(0);
+                return;
+            }
+            List<String> words = new ArrayList<>();
+            List<Integer> starts = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i <= content.length(); i++) {
+                if (i == content.length() || content.charAt(i) == ' ') {
+                    words.add(content.substring(start, i));
+                    starts.add(start);
+                    start = i + 1;
+                }
+            }
+            // like String.split, drop the trailing empty words
+            int size = words.size();
+            while (size > 0 && words.get(size - 1).isEmpty()) {
+                size--;
+            }
+            list = Collections.unmodifiableList(Arrays.asList(
+                    words.subList(0, size).toArray(new String[size])));
+            offsets = Collections.unmodifiableList(Arrays.asList(
+                    starts.subList(0, size).toArray(new Integer[size])));
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact storage of the sentences of a document collection. The contents
+ * are kept in one character buffer, the offsets, lengths and line numbers
+ * in arrays of ints, and the links only for the sentences having some.
+ * <p>
+ * The blocks using an arena hold the indices of their sentences and
+ * create a new Sentence each time one is read, so that changes made to
+ * a read sentence are not kept. Sentences are added while parsing only;
+ * an arena can be read by several threads once it is complete.
+ */
+public final class SentenceArena {
+    private char[] text = new char[4096];
+    private int textLength;
+    private int[] offsets = new int[256];
+    private int[] lengths = new int[256];
+    private int[] lines = new int[256];
+    private final BitSet firstSentences = new BitSet();
+    private final Map<Integer, List<String>> links = new HashMap<>();
+    private int size;
+
+    /**
+     * Add a copy of a sentence.
+     *
+     * @param sentence sentence to store
+     * @return index of the stored sentence
+     */
+    public int add(Sentence sentence) {
+        String content = sentence.content;
+        if (textLength + content.length() > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + content.length()));
+        }
+        content.getChars(0, content.length(), text, textLength);
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+            lines = Arrays.copyOf(lines, size * 2);
+        }
+        offsets[size] = textLength;
+        lengths[size] = content.length();
+        lines[size] = sentence.position;
+        firstSentences.set(size, sentence.isFirstSentence);
+        if (!sentence.links.isEmpty()) {
+            links.put(size, new ArrayList<>(sentence.links));
+        }
+        textLength += content.length();
+        return size++;
+    }
+
+    /**
+     * Create a sentence from the stored copy.
+     *
+     * @param index index of the sentence
+     * @return new sentence
+     */
+    public Sentence get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("sentence " + index + " of " + size);
+        }
+        Sentence sentence = new Sentence(new String(text, offsets[index], lengths[index]), lines[index]);
+        sentence.isFirstSentence = firstSentences.get(index);
+        List<String> sentenceLinks = links.get(index);
+        if (sentenceLinks != null) {
+            sentence.links.addAll(sentenceLinks);
+        }
+        return sentence;
+    }
+
+    /**
+     * Get the number of sentences.
+     *
+     * @return number of stored sentences
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of characters of all the sentences.
+     *
+     * @return length of the stored text
+     */
+    public int getTextLength() {
+        return textLength;
+    }
+
+    /**
+     * Create an empty list of sentences stored in this arena.
+     *
+     * @return list adding its sentences to this arena
+     */
+    public List<Sentence> newList() {
+        return new SentenceList();
+    }
+
+    /**
+     * Store sentences in this arena.
+     *
+     * @param sentences sentences to store
+     * @return list of the stored sentences
+     */
+    public List<Sentence> copyOf(List<Sentence> sentences) {
+        List<Sentence> list = newList();
+        list.addAll(sentences);
+        return list;
+    }
+
+    /**
+     * Sentences of a block, as their indices in the arena.
+     */
+    private final class SentenceList extends AbstractList<Sentence> {
+        private int[] indices = new int[4];
+        private int count;
+
+        @Override
+        public Sentence get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("sentence " + index + " of " + count);
+            }
+            return SentenceArena.this.get(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public boolean add(Sentence sentence) {
+            if (count == indices.length) {
+                indices = Arrays.copyOf(indices, count * 2);
+            }
+            indices[count++] = SentenceArena.this.add(sentence);
+            modCount++;
+            return true;
+        }
+    }
+}
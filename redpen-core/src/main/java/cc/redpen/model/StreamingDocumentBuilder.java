@@ -0,0 +1,83 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Builder which hands each section to a consumer as soon as it is complete
+ * instead of keeping the whole collection in memory.
+ * <p>
+ * A section is complete when the next section or document is added, or
+ * when {@link #flush()} is called after the parser finishes a document.
+ * Once the consumer returns, the section is removed from its document and
+ * its paragraphs and lists are released.
+ */
+public class StreamingDocumentBuilder extends DocumentCollection.Builder {
+    private final BiConsumer<Document, Section> consumer;
+
+    /**
+     * Constructor.
+     *
+     * @param consumer receives each complete section with its document
+     */
+    public StreamingDocumentBuilder(BiConsumer<Document, Section> consumer) {
+        super();
+        this.consumer = consumer;
+    }
+
+    @Override
+    public DocumentCollection.Builder addDocument(String fileName) {
+        flush();
+        return super.addDocument(fileName);
+    }
+
+    @Override
+    public DocumentCollection.Builder addSection(int level, List<Sentence> header) {
+        flush();
+        return super.addSection(level, header);
+    }
+
+    /**
+     * Hand the sections of the last document to the consumer.
+     */
+    public void flush() {
+        Document document = getLastDocument();
+        if (document == null || document.getNumberOfSections() == 0) {
+            return;
+        }
+        for (Section section : document) {
+            consumer.accept(document, section);
+            section.clearContents();
+        }
+        document.clearSections();
+    }
+
+    /**
+     * Return the built DocumentCollection object. The documents do not
+     * contain sections since they are already handed to the consumer.
+     *
+     * @return built document
+     */
+    @Override
+    public DocumentCollection build() {
+        flush();
+        return super.build();
+    }
+}
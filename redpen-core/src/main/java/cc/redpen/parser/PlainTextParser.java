@@ -53,7 +53,7 @@ public final class PlainTextParser extends BasicDocumentParser {
         builder.addSection(0, headers);
         builder.addParagraph();
         BufferedReader br = createReader(is);
-        String remain = "";
+        StringBuilder remain = new StringBuilder();
         String line;
         int lineNum = 0;
         try {
@@ -63,10 +63,9 @@ public final class PlainTextParser extends BasicDocumentParser {
                 if (line.equals("")) {
                     builder.addParagraph();
                 } else if (periodPosition == -1) {
-                    remain = remain + line;
+                    remain.append(line);
                 } else {
-                    remain =
-                            this.extractSentences(lineNum, remain + line);
+                    this.extractSentences(lineNum, remain.append(line));
                 }
                 lineNum++;
             }
@@ -74,25 +73,18 @@ public final class PlainTextParser extends BasicDocumentParser {
             throw new RedPenException(e);
         }
         if (remain.length() > 0) {
-            builder.addSentence(remain, lineNum);
+            builder.addSentence(remain.toString(), lineNum);
         }
         return builder.getLastDocument();
     }
 
-    private String extractSentences(int lineNum, String line) {
-        int periodPosition = getSentenceExtractor().getSentenceEndPosition(line);
-        if (periodPosition == -1) {
-            return line;
-        } else {
-            while (true) {
-                builder.addSentence(
-                        line.substring(0, periodPosition + 1), lineNum);
-                line = line.substring(periodPosition + 1, line.length());
-                periodPosition = getSentenceExtractor().getSentenceEndPosition(line);
-                if (periodPosition == -1) {
-                    return line;
-                }
-            }
+    private void extractSentences(int lineNum, StringBuilder remain) {
+        List<Sentence> sentences = new ArrayList<>();
+        int remainStart = getSentenceExtractor().extract(
+                remain, 0, remain.length(), sentences, lineNum);
+        for (Sentence sentence : sentences) {
+            builder.addSentence(sentence);
         }
+        remain.delete(0, remainStart);
     }
 }
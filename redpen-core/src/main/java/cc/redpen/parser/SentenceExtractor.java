@@ -147,24 +147,33 @@ public final class SentenceExtractor {
      */
     public String extract(String line,
                           List<Sentence> outputSentences, int position) {
-        int periodPosition =
-                endOfSentenceDetector.getSentenceEndPosition(line);
-        if (periodPosition == -1) {
-            return line;
-        } else {
-            while (true) {
-                Sentence sentence = new Sentence(line.substring(0,
-                        periodPosition + 1), position);
-                outputSentences.add(sentence);
-                line = line.substring(periodPosition + 1,
-                        line.length());
-                periodPosition =
-                        endOfSentenceDetector.getSentenceEndPosition(line);
-                if (periodPosition == -1) {
-                    return line;
-                }
-            }
+        int remainStart = extract(line, 0, line.length(), outputSentences, position);
+        return line.substring(remainStart);
+    }
+
+    /**
+     * Get Sentence lists from a range of characters. Only the contents of
+     * the extracted sentences are copied, the remaining text stays in place.
+     *
+     * @param text            characters which can contain more than one sentences
+     * @param start           start of the range (inclusive)
+     * @param end             end of the range (exclusive)
+     * @param outputSentences List of extracted sentences
+     * @param position        line number
+     * @return offset in text where the remaining (unterminated) part begins,
+     * end when nothing remains
+     */
+    public int extract(CharSequence text, int start, int end,
+                       List<Sentence> outputSentences, int position) {
+        int sentenceStart = start;
+        for (int periodPosition
+                : endOfSentenceDetector.getSentenceEndPositions(text, start, end)) {
+            outputSentences.add(new Sentence(
+                    text.subSequence(sentenceStart, periodPosition + 1).toString(),
+                    position));
+            sentenceStart = periodPosition + 1;
         }
+        return sentenceStart;
     }
 
     /**
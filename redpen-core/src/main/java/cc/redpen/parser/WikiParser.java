@@ -130,10 +130,7 @@ public final class WikiParser extends BasicDocumentParser {
                     builder.addParagraph();
                 } else { // usual sentence.
                     currentPattern = LinePattern.SENTENCE;
-                    String remainStr = appendSentencesIntoSection(lineNum,
-                            remain.append(line).toString());
-                    remain.delete(0, remain.length());
-                    remain.append(remainStr);
+                    appendSentencesIntoSection(lineNum, remain.append(line));
                 }
                 lineNum++;
             }
@@ -153,12 +150,12 @@ public final class WikiParser extends BasicDocumentParser {
         }
         List<Sentence> outputSentences = new ArrayList<>();
         String remainSentence = obtainSentences(0, head.get(1), outputSentences);
-        builder.addListElement(extractListLevel(head.get(0)),
-                outputSentences);
         // NOTE: for list content without period
         if (remainSentence != null && remainSentence.length() > 0) {
             outputSentences.add(new Sentence(remainSentence, lineNum));
         }
+        builder.addListElement(extractListLevel(head.get(0)),
+                outputSentences);
     }
 
     private Section appendSection(List<String> head, int lineNum) {
@@ -274,14 +271,16 @@ public final class WikiParser extends BasicDocumentParser {
         return remain;
     }
 
-    private String appendSentencesIntoSection(int lineNum, String line) {
+    private void appendSentencesIntoSection(int lineNum, StringBuilder remain) {
         List<Sentence> outputSentences = new ArrayList<>();
-        String remain = obtainSentences(lineNum, line, outputSentences);
+        int remainStart = getSentenceExtractor().extract(
+                remain, 0, remain.length(), outputSentences, lineNum);
+        remain.delete(0, remainStart);
 
         for (Sentence sentence : outputSentences) {
+            parseSentence(sentence); // extract inline elements
             builder.addSentence(sentence);
         }
-        return remain;
     }
 
     private int extractListLevel(String listPrefix) {
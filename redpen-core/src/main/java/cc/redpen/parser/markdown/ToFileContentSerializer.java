@@ -140,7 +140,7 @@ public class ToFileContentSerializer implements Visitor {
 
     private List<Sentence> createSentenceList() {
         List<Sentence> newSentences = new ArrayList<>();
-        String remainStr = "";
+        StringBuilder remain = new StringBuilder();
         Sentence currentSentence = null;
         List<String> remainLinks = new ArrayList<>();
         int lineNum = -1;
@@ -149,9 +149,10 @@ public class ToFileContentSerializer implements Visitor {
             lineNum = candidateSentence.getLineNum();
             // extract sentences in input line
             List<Sentence> currentSentences = new ArrayList<>();
-            remainStr = sentenceExtractor.extract(
-                    remainStr + candidateSentence.getSentence(),
-                    currentSentences, lineNum);
+            remain.append(candidateSentence.getSentence());
+            int remainStart = sentenceExtractor.extract(
+                    remain, 0, remain.length(), currentSentences, lineNum);
+            remain.delete(0, remainStart);
 
             if (currentSentences.size() > 0) {
                 currentSentence = addExtractedSentences(newSentences,
@@ -169,8 +170,8 @@ public class ToFileContentSerializer implements Visitor {
             }
         }
         // for remaining
-        if (remainStr.length() > 0) {
-            newSentences.add(new Sentence(remainStr, lineNum));
+        if (remain.length() > 0) {
+            newSentences.add(new Sentence(remain.toString(), lineNum));
         }
         candidateSentences.clear();
         return newSentences;
@@ -0,0 +1,286 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton to find the occurrences of many patterns in a text
+ * with one linear scan. The automaton is immutable once built, so that one
+ * instance can be shared among threads.
+ *
+ * @see <a href="http://en.wikipedia.org/wiki/Aho–Corasick_string_matching_algorithm">
+ * Aho-Corasick string matching algorithm</a>
+ */
+public final class AhoCorasickMatcher {
+    private static final int ROOT = 0;
+    private static final int NO_NODE = -1;
+
+    private final String[] patterns;
+    /* sorted transition labels of each node */
+    private final char[][] labels;
+    /* transition targets of each node (parallel to labels) */
+    private final int[][] targets;
+    private final int[] failures;
+    /* id of the pattern ending at each node, or NO_NODE */
+    private final int[] patternIds;
+    /* nearest node in the failure chain that ends a pattern, or NO_NODE */
+    private final int[] outputs;
+
+    /**
+     * Constructor. Empty patterns and duplicates are ignored.
+     *
+     * @param patternList patterns to search
+     */
+    public AhoCorasickMatcher(Collection<String> patternList) {
+        List<String> registered = new ArrayList<>();
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(NO_NODE);
+
+        for (String pattern : patternList) {
+            if (pattern == null || pattern.length() == 0) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(node).put(pattern.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    ends.add(NO_NODE);
+                }
+                node = next;
+            }
+            if (ends.get(node) == NO_NODE) {
+                ends.set(node, registered.size());
+                registered.add(pattern);
+            }
+        }
+
+        int size = trie.size();
+        this.patterns = registered.toArray(new String[registered.size()]);
+        this.labels = new char[size][];
+        this.targets = new int[size][];
+        this.failures = new int[size];
+        this.patternIds = new int[size];
+        this.outputs = new int[size];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> children = trie.get(node);
+            labels[node] = new char[children.size()];
+            targets[node] = new int[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                labels[node][i] = child.getKey();
+                targets[node][i] = child.getValue();
+                i++;
+            }
+            patternIds[node] = ends.get(node);
+        }
+        buildFailureLinks();
+    }
+
+    private void buildFailureLinks() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        failures[ROOT] = ROOT;
+        outputs[ROOT] = NO_NODE;
+        for (int child : targets[ROOT]) {
+            failures[child] = ROOT;
+            outputs[child] = NO_NODE;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < labels[node].length; i++) {
+                int child = targets[node][i];
+                int failure = failures[node];
+                int next = transit(failure, labels[node][i]);
+                while (next == NO_NODE && failure != ROOT) {
+                    failure = failures[failure];
+                    next = transit(failure, labels[node][i]);
+                }
+                failures[child] = next == NO_NODE ? ROOT : next;
+                outputs[child] = patternIds[failures[child]] != NO_NODE
+                        ? failures[child] : outputs[failures[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int transit(int node, char c) {
+        int index = Arrays.binarySearch(labels[node], c);
+        return index < 0 ? NO_NODE : targets[node][index];
+    }
+
+    /**
+     * Scan the text and notify all the occurrences of the patterns to the handler.
+     * Occurrences are notified in the order of their end positions.
+     *
+     * @param text    input text
+     * @param handler callback called for each occurrence
+     */
+    public void match(CharSequence text, MatchHandler handler) {
+        int node = ROOT;
+        for (int position = 0; position < text.length(); position++) {
+            char c = text.charAt(position);
+            int next = transit(node, c);
+            while (next == NO_NODE && node != ROOT) {
+                node = failures[node];
+                next = transit(node, c);
+            }
+            node = next == NO_NODE ? ROOT : next;
+
+            int output = patternIds[node] != NO_NODE ? node : outputs[node];
+            while (output != NO_NODE) {
+                String pattern = patterns[patternIds[output]];
+                handler.onMatch(pattern, position + 1 - pattern.length(), position + 1);
+                output = outputs[output];
+            }
+        }
+    }
+
+    /**
+     * Get all the occurrences of the patterns in the text.
+     *
+     * @param text input text
+     * @return occurrences in the order of their end positions
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        match(text, (pattern, start, end) -> matches.add(new Match(pattern, start, end)));
+        return matches;
+    }
+
+    /**
+     * Get the patterns found in the text.
+     *
+     * @param text input text
+     * @return map from found patterns to the start position of their first occurrences,
+     * in the order of the first occurrences
+     */
+    public Map<String, Integer> findPatterns(CharSequence text) {
+        Map<String, Integer> found = new LinkedHashMap<>();
+        match(text, (pattern, start, end) -> found.putIfAbsent(pattern, start));
+        return found;
+    }
+
+    /**
+     * Get the number of the registered patterns.
+     *
+     * @return number of patterns
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Callback to receive the occurrences of patterns.
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Called for each occurrence of a pattern.
+         *
+         * @param pattern found pattern
+         * @param start   start offset of the occurrence in the text
+         * @param end     end offset (exclusive) of the occurrence in the text
+         */
+        void onMatch(String pattern, int start, int end);
+    }
+
+    /**
+     * An occurrence of a pattern.
+     */
+    public static final class Match {
+        private final String pattern;
+        private final int start;
+        private final int end;
+
+        Match(String pattern, int start, int end) {
+            this.pattern = pattern;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Get the found pattern.
+         *
+         * @return pattern
+         */
+        public String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Get the start offset of the occurrence.
+         *
+         * @return start offset
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Get the end offset (exclusive) of the occurrence.
+         *
+         * @return end offset
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Match match = (Match) o;
+
+            if (start != match.start) return false;
+            if (end != match.end) return false;
+            return pattern.equals(match.pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = pattern.hashCode();
+            result = 31 * result + start;
+            result = 31 * result + end;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{" +
+                    "pattern='" + pattern + '\'' +
+                    ", start=" + start +
+                    ", end=" + end +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BK-tree, a metric index over strings.
+ * <p>
+ * Answers "all keys within distance k of a query" without comparing the
+ * query with every key: by the triangle inequality only the children whose
+ * edge distance lies in [d - k, d + k] can hold matches, where d is the
+ * distance between the query and the node. Keys can be added at any time.
+ * Distances are measured with {@link LevenshteinDistance}, bounded by the
+ * largest value that can still lead to a match.
+ *
+ * @param <V> type of the values associated with the keys
+ */
+public final class BKTree<V> {
+
+    private final LevenshteinDistance metric;
+    private Node<V> root;
+    private int size;
+
+    /**
+     * Constructor using the Levenshtein distance with the default costs.
+     */
+    public BKTree() {
+        this(new LevenshteinDistance());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param metric edit distance to index by, its insertion and deletion
+     *               costs must be equal so that it is symmetric
+     */
+    public BKTree(LevenshteinDistance metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * Add a key. The value of an existing key is replaced.
+     *
+     * @param key   key to add
+     * @param value value associated with the key
+     * @return the previous value of the key, or null
+     */
+    public V put(String key, V value) {
+        if (root == null) {
+            root = new Node<>(key, value);
+            size++;
+            return null;
+        }
+        Node<V> node = root;
+        while (true) {
+            int distance = metric.distance(key, node.key);
+            if (distance == 0) {
+                V previous = node.value;
+                node.value = value;
+                return previous;
+            }
+            Node<V> child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node<>(key, value));
+                size++;
+                return null;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key key to look up
+     * @return the value, or null when the key is not in the tree
+     */
+    public V get(String key) {
+        Node<V> node = root;
+        while (node != null) {
+            int distance = metric.distance(key, node.key);
+            if (distance == 0) {
+                return node.value;
+            }
+            node = node.child(distance);
+        }
+        return null;
+    }
+
+    /**
+     * Check whether the tree has a key.
+     *
+     * @param key key to look up
+     * @return true when the key is in the tree
+     */
+    public boolean containsKey(String key) {
+        Node<V> node = root;
+        while (node != null) {
+            int distance = metric.distance(key, node.key);
+            if (distance == 0) {
+                return true;
+            }
+            node = node.child(distance);
+        }
+        return false;
+    }
+
+    /**
+     * Find all the keys within the given distance of a query.
+     *
+     * @param query       query string
+     * @param maxDistance maximum distance (inclusive)
+     * @return keys and their values, in the order the tree is searched
+     */
+    public Map<String, V> search(String query, int maxDistance) {
+        Map<String, V> result = new LinkedHashMap<>();
+        if (root == null) {
+            return result;
+        }
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<V> node = stack.pop();
+            // beyond this bound neither the node nor any child can match
+            int distance = metric.distance(query, node.key, node.maxDistance + maxDistance);
+            if (distance <= maxDistance) {
+                result.put(node.key, node.value);
+            }
+            for (int i = node.childCount - 1; i >= 0; i--) {
+                int edge = node.distances[i];
+                if (edge >= distance - maxDistance && edge <= distance + maxDistance) {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of keys.
+     *
+     * @return number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    private static final class Node<V> {
+        private final String key;
+        private V value;
+        private int[] distances;
+        private Node<V>[] children;
+        private int childCount;
+        private int maxDistance;
+
+        private Node(String key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        private Node<V> child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void addChild(int distance, Node<V> child) {
+            if (children == null) {
+                distances = new int[2];
+                children = (Node<V>[]) new Node<?>[2];
+            } else if (childCount == children.length) {
+                distances = Arrays.copyOf(distances, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            distances[childCount] = distance;
+            maxDistance = Math.max(maxDistance, distance);
+            children[childCount] = child;
+            childCount++;
+        }
+    }
+}
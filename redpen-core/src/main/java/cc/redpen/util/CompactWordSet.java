@@ -0,0 +1,366 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of words stored as a minimal acyclic automaton (DAWG).
+ * <p>
+ * Common prefixes and suffixes of the words share states, and the states
+ * are packed into a few primitive arrays, so a large dictionary takes a
+ * fraction of the memory of a HashSet of strings. Lookups walk the
+ * automaton without allocating.
+ */
+public final class CompactWordSet extends AbstractSet<String> {
+
+    /** states with fewer edges than this are searched linearly */
+    private static final int LINEAR_SCAN_EDGES = 8;
+
+    /**
+     * States laid out one after another. A state starts with a header
+     * holding its edge count and terminal flag, followed by its edges
+     * (label in the upper half, offset of the target state in the lower
+     * half) sorted by label.
+     */
+    private final long[] nodes;
+    private final int stateCount;
+    private final int size;
+    private final int maxLength;
+
+    private CompactWordSet(long[] nodes, int stateCount, int size, int maxLength) {
+        this.nodes = nodes;
+        this.stateCount = stateCount;
+        this.size = size;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Build a word set.
+     *
+     * @param words words to store, duplicates are ignored
+     * @return word set containing the given words
+     */
+    public static CompactWordSet of(Collection<String> words) {
+        String[] sorted = words.toArray(new String[words.size()]);
+        Arrays.sort(sorted);
+
+        Map<State, State> register = new HashMap<>();
+        State root = new State();
+        String previous = null;
+        int count = 0;
+        int maxLength = 0;
+        for (String word : sorted) {
+            if (word.equals(previous)) {
+                continue;
+            }
+            int common = previous == null ? 0 : commonPrefixLength(previous, word);
+            State last = root;
+            for (int i = 0; i < common; i++) {
+                last = last.lastChild();
+            }
+            if (last.size > 0) {
+                replaceOrRegister(last, register);
+            }
+            for (int i = common; i < word.length(); i++) {
+                State next = new State();
+                last.addEdge(word.charAt(i), next);
+                last = next;
+            }
+            last.terminal = true;
+            previous = word;
+            count++;
+            maxLength = Math.max(maxLength, word.length());
+        }
+        if (root.size > 0) {
+            replaceOrRegister(root, register);
+        }
+        return freeze(root, count, maxLength);
+    }
+
+    /**
+     * Check whether the given word is in this set.
+     *
+     * @param word word to look up
+     * @return true when the set contains the word
+     */
+    public boolean contains(CharSequence word) {
+        int state = 0;
+        for (int i = 0; i < word.length(); i++) {
+            state = transit(state, word.charAt(i));
+            if (state < 0) {
+                return false;
+            }
+        }
+        return isTerminal(state);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof CharSequence && contains((CharSequence) o);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of automaton states, useful to estimate the footprint.
+     *
+     * @return number of states
+     */
+    public int stateCount() {
+        return stateCount;
+    }
+
+    /**
+     * Iterate the words in lexicographic order.
+     *
+     * @return word iterator
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new WordIterator();
+    }
+
+    private boolean isTerminal(int state) {
+        return (nodes[state] & 1) != 0;
+    }
+
+    private int edgeCount(int state) {
+        return (int) (nodes[state] >>> 1);
+    }
+
+    private static char label(long edge) {
+        return (char) (edge >>> 32);
+    }
+
+    private static int target(long edge) {
+        return (int) edge;
+    }
+
+    private int transit(int state, char c) {
+        int low = state + 1;
+        int high = state + edgeCount(state);
+        if (high - low < LINEAR_SCAN_EDGES) {
+            for (int i = low; i <= high; i++) {
+                if (label(nodes[i]) == c) {
+                    return target(nodes[i]);
+                }
+            }
+            return -1;
+        }
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = label(nodes[mid]);
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return target(nodes[mid]);
+            }
+        }
+        return -1;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void replaceOrRegister(State state, Map<State, State> register) {
+        State child = state.lastChild();
+        if (child.size > 0) {
+            replaceOrRegister(child, register);
+        }
+        State registered = register.get(child);
+        if (registered != null) {
+            state.targets[state.size - 1] = registered;
+        } else {
+            register.put(child, child);
+        }
+    }
+
+    private static CompactWordSet freeze(State root, int count, int maxLength) {
+        // number the states in depth first order so that a lookup mostly
+        // moves forward through nearby array slots
+        Map<State, Integer> ids = new IdentityHashMap<>();
+        Deque<State> stack = new ArrayDeque<>();
+        ids.put(root, 0);
+        stack.push(root);
+        int edgeCount = 0;
+        State[] order = new State[16];
+        int stateCount = 0;
+        while (!stack.isEmpty()) {
+            State state = stack.pop();
+            if (stateCount == order.length) {
+                order = Arrays.copyOf(order, stateCount * 2);
+            }
+            order[stateCount++] = state;
+            edgeCount += state.size;
+            for (int i = state.size - 1; i >= 0; i--) {
+                State target = state.targets[i];
+                if (!ids.containsKey(target)) {
+                    ids.put(target, -1);
+                    stack.push(target);
+                }
+            }
+        }
+        int offset = 0;
+        for (int id = 0; id < stateCount; id++) {
+            ids.put(order[id], offset);
+            offset += 1 + order[id].size;
+        }
+
+        long[] nodes = new long[stateCount + edgeCount];
+        int position = 0;
+        for (int id = 0; id < stateCount; id++) {
+            State state = order[id];
+            nodes[position++] = ((long) state.size << 1) | (state.terminal ? 1 : 0);
+            for (int i = 0; i < state.size; i++) {
+                nodes[position++] = ((long) state.labels[i] << 32) | ids.get(state.targets[i]);
+            }
+        }
+        return new CompactWordSet(nodes, stateCount, count, maxLength);
+    }
+
+    /**
+     * Mutable state used while building the automaton. Two states are equal
+     * when they accept the same suffixes, which holds once their children are
+     * registered (children are then compared by identity).
+     */
+    private static final class State {
+        private boolean terminal;
+        private char[] labels = new char[2];
+        private State[] targets = new State[2];
+        private int size;
+
+        private void addEdge(char label, State target) {
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            labels[size] = label;
+            targets[size] = target;
+            size++;
+        }
+
+        private State lastChild() {
+            return targets[size - 1];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State that = (State) o;
+            if (terminal != that.terminal || size != that.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (labels[i] != that.labels[i] || targets[i] != that.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = terminal ? 1 : 0;
+            for (int i = 0; i < size; i++) {
+                result = 31 * result + labels[i];
+                result = 31 * result + System.identityHashCode(targets[i]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Depth first walk over the automaton emitting each accepted word.
+     */
+    private final class WordIterator implements Iterator<String> {
+        private final int[] stateStack = new int[maxLength + 1];
+        private final int[] edgeStack = new int[maxLength + 1];
+        private final StringBuilder prefix = new StringBuilder(maxLength);
+        private int depth;
+        private String next;
+
+        private WordIterator() {
+            stateStack[0] = 0;
+            edgeStack[0] = 1;
+            next = isTerminal(0) ? "" : advance();
+        }
+
+        private String advance() {
+            while (depth >= 0) {
+                int state = stateStack[depth];
+                int edge = edgeStack[depth];
+                if (edge <= state + edgeCount(state)) {
+                    edgeStack[depth] = edge + 1;
+                    int target = target(nodes[edge]);
+                    prefix.setLength(depth);
+                    prefix.append(label(nodes[edge]));
+                    depth++;
+                    stateStack[depth] = target;
+                    edgeStack[depth] = target + 1;
+                    if (isTerminal(target)) {
+                        return prefix.toString();
+                    }
+                } else {
+                    depth--;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String word = next;
+            next = advance();
+            return word;
+        }
+    }
+}
@@ -17,21 +17,27 @@
  */
 package cc.redpen.util;
 
+import java.nio.CharBuffer;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Utility class to handle a string.
+ * <p>
+ * Sentence boundaries are found in a single left to right scan. The
+ * positions covered by white words (abbreviations containing periods) are
+ * marked in a BitSet with an Aho-Corasick automaton, and the end of
+ * sentence matches are computed once per input.
  */
 public final class EndOfSentenceDetector {
 
-
-    private List<String> whiteList;
-    private Pattern pattern;
+    private final Pattern pattern;
+    private final AhoCorasickMatcher whiteWordMatcher;
 
     /**
      * Constructor.
@@ -39,8 +45,7 @@ public final class EndOfSentenceDetector {
      * @param pattern end of sentence regex pattern
      */
     public EndOfSentenceDetector(Pattern pattern) {
-        this.pattern = pattern;
-        this.whiteList = new ArrayList<>();
+        this(pattern, new ArrayList<>());
     }
 
     /**
@@ -52,11 +57,7 @@ public final class EndOfSentenceDetector {
     public EndOfSentenceDetector(Pattern pattern,
                                  List<String> whiteList) {
         this.pattern = pattern;
-        this.whiteList = whiteList;
-    }
-
-    private static boolean checkPosition(int position, String str) {
-        return -1 < position && position < str.length() - 1;
+        this.whiteWordMatcher = new AhoCorasickMatcher(whiteList);
     }
 
     /**
@@ -66,120 +67,158 @@ public final class EndOfSentenceDetector {
      * @return position of full stop when there is a full stop, -1 otherwise
      */
     public int getSentenceEndPosition(String str) {
-        Set<Integer> nonEndOfSentencePositions =
-                extractNonEndOfSentencePositions(str);
-        return getEndPosition(str, 0, nonEndOfSentencePositions);
+        return new Scan(str).nextEndPosition(0);
     }
 
-    private int getEndPosition(String str,
-                               int offset, Set<Integer> whitePositions) {
-        int startPosition = -1;
-        int endPosition = -1;
-        Matcher matcher = pattern.matcher(str);
-        boolean matchResult = getEndPositionSkippingWhiteList(offset,
-                matcher, whitePositions);
-        if (matchResult) {
-            startPosition = matcher.start();
-            endPosition = matcher.end();
-        }
-
-        if (checkPosition(endPosition - 1, str)) {
-            if ((StringUtils.isBasicLatin(str.charAt(startPosition))
-                    && (' ' == str.charAt(endPosition)
-                    || '\n' == str.charAt(endPosition)))) {
-                return endPosition - 1;
-            }
-            return handleSuccessivePeriods(str, startPosition, whitePositions);
-        }
+    /**
+     * Get all the sentence end positions. The result is the same as calling
+     * {@link #getSentenceEndPosition(String)} repeatedly on the remaining
+     * string after each sentence, but the input is scanned only once.
+     *
+     * @param str input string
+     * @return positions of the full stops ending each sentence, in order
+     */
+    public List<Integer> getSentenceEndPositions(CharSequence str) {
+        return getSentenceEndPositions(str, 0, str.length());
+    }
 
-        if (endPosition == str.length()) {
-            // NOTE: period in end of sentence should be the end of the sentence
-            // even if there is NO tailing whitespace.
-            return endPosition - 1;
+    /**
+     * Get all the sentence end positions in a range of the input, as if the
+     * range were a string of its own. The range is not copied.
+     *
+     * @param str   input characters
+     * @param start start of the range (inclusive)
+     * @param end   end of the range (exclusive)
+     * @return positions in str of the full stops ending each sentence, in order
+     */
+    public List<Integer> getSentenceEndPositions(CharSequence str, int start, int end) {
+        List<Integer> positions = new ArrayList<>();
+        CharSequence range = start == 0 && end == str.length()
+                ? str : CharBuffer.wrap(str, start, end);
+        Scan scan = new Scan(range);
+        int position = scan.nextEndPosition(0);
+        while (position != -1) {
+            positions.add(start + position);
+            position = scan.nextEndPosition(position + 1);
         }
-        return -1;
+        return positions;
     }
 
-    private boolean getEndPositionSkippingWhiteList(int offset,
-                                                    Matcher matcher, Set<Integer> whitePositions) {
-        boolean result = matcher.find(offset);
-        while (result) {
-            int startPosition = matcher.start();
-            int endPosition = matcher.end();
-            boolean containsWhite = false;
-            for (int i = startPosition; i < endPosition; i++) {
-                if (whitePositions.contains(i)) {
-                    containsWhite = true;
-                    break;
+    /**
+     * Match state for one input string.
+     */
+    private final class Scan {
+        private final CharSequence str;
+        private final int length;
+        /** positions covered by white words */
+        private final BitSet whitePositions;
+        /** length of the end of sentence match starting at each position, 0 if none */
+        private final int[] matchLengths;
+        /** first position at or after each position where a match starts, -1 if none */
+        private final int[] nextMatches;
+
+        private Scan(CharSequence str) {
+            this.str = str;
+            this.length = str.length();
+            this.whitePositions = extractNonEndOfSentencePositions(str);
+            this.matchLengths = new int[length];
+            this.nextMatches = new int[length + 1];
+
+            Matcher matcher = pattern.matcher(str);
+            int from = 0;
+            while (from < length && matcher.find(from)) {
+                int start = matcher.start();
+                int end = matcher.end();
+                matchLengths[start] = end - start;
+                // find() skips the inside of a match, look at it separately
+                for (int i = start + 1; i < end; i++) {
+                    matcher.region(i, length);
+                    if (matcher.lookingAt()) {
+                        matchLengths[i] = matcher.end() - i;
+                    }
                 }
+                from = Math.max(end, start + 1);
             }
-            if (containsWhite) {
-                result = getEndPositionSkippingWhiteList(endPosition,
-                        matcher, whitePositions);
-            } else {
-                break;
+            computeNextMatches();
+        }
+
+        private void computeNextMatches() {
+            nextMatches[length] = -1;
+            for (int i = length - 1; i >= 0; i--) {
+                nextMatches[i] = matchLengths[i] > 0 ? i : nextMatches[i + 1];
             }
         }
-        return result;
-    }
 
-    // TODO: efficient computing with common prefix search.
-    private Set<Integer> extractNonEndOfSentencePositions(
-            String inputString) {
-        Set<Integer> nonEndOfSentencePositions = new HashSet<>();
-        for (String whiteWord : this.whiteList) {
-            int offset = 0;
+        /**
+         * Equivalent of getSentenceEndPosition on the string starting at offset.
+         */
+        private int nextEndPosition(int offset) {
+            int from = offset;
             while (true) {
-                int matchStartPosition = inputString.indexOf(whiteWord, offset);
-                int matchEndPosition = matchStartPosition + whiteWord.length();
-                if (matchStartPosition == -1) {
-                    break;
+                int startPosition = nextMatchSkippingWhiteList(from);
+                if (startPosition == -1) {
+                    return -1;
                 }
-                for (int i = matchStartPosition;
-                     i < matchEndPosition; i++) {
-                    nonEndOfSentencePositions.add(i);
+                int endPosition = startPosition + matchLengths[startPosition];
+                if (endPosition == length) {
+                    // NOTE: period in end of sentence should be the end of the sentence
+                    // even if there is NO tailing whitespace.
+                    return endPosition - 1;
+                }
+                if (StringUtils.isBasicLatin(str.charAt(startPosition))
+                        && (' ' == str.charAt(endPosition)
+                        || '\n' == str.charAt(endPosition))) {
+                    return endPosition - 1;
                 }
-                offset = matchEndPosition;
-            }
-        }
-        return nonEndOfSentencePositions;
-    }
-
-    private int handleSuccessivePeriods(String str,
-                                        int position, Set<Integer> whitePositions) {
-        int nextPosition = position + 1;
-        Matcher matcher = this.pattern.matcher(str);
-        int matchPosition = -1;
-        if (matcher.find(nextPosition)) {
-            matchPosition = matcher.start();
-        }
 
-        if (isNonAlphabetWithoutSucessiveEnd(str, nextPosition, matchPosition)
-                || isNonAlphabetEndOfSentenceWithPartialSentence(str, position, matchPosition)
-                ) {
-            // NOTE: Non Latin languages (especially Asian languages, periods do not
-            // have tailing spaces in the end of sentences)
-            return position;
+                // handle successive periods
+                int nextPosition = startPosition + 1;
+                int matchPosition = nextMatches[nextPosition];
+                if (matchPosition > -1 && !StringUtils.isBasicLatin(str.charAt(matchPosition))
+                        && matchPosition != nextPosition) {
+                    // NOTE: Non Latin languages (especially Asian languages, periods do not
+                    // have tailing spaces in the end of sentences)
+                    return startPosition;
+                }
+                if (matchPosition == -1 && !StringUtils.isBasicLatin(str.charAt(startPosition))) {
+                    return startPosition;
+                }
+                if (matchPosition == nextPosition && nextPosition == length - 1) {
+                    // NOTE: handling of period in succession
+                    return nextPosition;
+                }
+                from = nextPosition;
+            }
         }
 
-        if (matchPosition == nextPosition) {
-            // NOTE: handling of period in succession
-            if ((position + 1) == str.length() - 1) {
-                return nextPosition;
-            } else {
-                return getEndPosition(str, nextPosition, whitePositions);
+        private int nextMatchSkippingWhiteList(int from) {
+            int position = nextMatches[from];
+            while (position != -1) {
+                int end = position + matchLengths[position];
+                int white = whitePositions.nextSetBit(position);
+                if (white == -1 || white >= end) {
+                    return position;
+                }
+                position = nextMatches[end];
             }
-        } else {
-            return getEndPosition(str, nextPosition, whitePositions);
+            return -1;
         }
     }
 
-    private boolean isNonAlphabetEndOfSentenceWithPartialSentence(String str, int position, int matchPosition) {
-        return (matchPosition == -1 && (!StringUtils.isBasicLatin(str.charAt(position))));
-    }
-
-    private boolean isNonAlphabetWithoutSucessiveEnd(String str, int nextPosition, int matchPosition) {
-        return matchPosition > -1 && (!StringUtils.isBasicLatin(str.charAt(matchPosition)))
-                && matchPosition != nextPosition;
+    private BitSet extractNonEndOfSentencePositions(CharSequence inputString) {
+        BitSet nonEndOfSentencePositions = new BitSet(inputString.length());
+        if (whiteWordMatcher.size() == 0) {
+            return nonEndOfSentencePositions;
+        }
+        // occurrences of the same word do not overlap, as with a repeated indexOf
+        Map<String, Integer> lastEnds = new HashMap<>();
+        whiteWordMatcher.match(inputString, (word, start, end) -> {
+            Integer lastEnd = lastEnds.get(word);
+            if (lastEnd == null || lastEnd <= start) {
+                nonEndOfSentencePositions.set(start, end);
+                lastEnds.put(word, end);
+            }
+        });
+        return nonEndOfSentencePositions;
     }
 }
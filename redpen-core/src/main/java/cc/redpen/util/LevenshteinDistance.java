@@ -24,6 +24,10 @@ package cc.redpen.util;
  * of single-character edits (i.e. insertions, deletions
  * or substitutions). The default cost for each edit
  * is 1, and each value is configurable.
+ * <p>
+ * Instances are immutable and can be shared between threads. The static
+ * methods use a process wide default instance whose costs can be changed
+ * with the static setters.
  */
 public final class LevenshteinDistance {
     /**
@@ -41,20 +45,42 @@ public final class LevenshteinDistance {
      */
     public static final int DEFAULT_SUBSTITUTION_COST = 1;
 
-    private static int INSERTION_COST;
-    private static int DELETION_COST;
-    private static int SUBSTITUTION_COST;
+    /**
+     * Strings up to this length are compared with the bit-parallel algorithm.
+     */
+    private static final int MAX_BIT_PARALLEL_LENGTH = 64;
+
+    private static volatile LevenshteinDistance defaultDistance =
+            new LevenshteinDistance();
+
+    private static final ThreadLocal<Workspace> WORKSPACE =
+            ThreadLocal.withInitial(Workspace::new);
 
-    static {
-        INSERTION_COST = DEFAULT_INSERTION_COST;
-        DELETION_COST = DEFAULT_DELETION_COST;
-        SUBSTITUTION_COST = DEFAULT_SUBSTITUTION_COST;
+    private final int insertionCost;
+    private final int deletionCost;
+    private final int substitutionCost;
+
+    /**
+     * Constructor with the default costs.
+     */
+    public LevenshteinDistance() {
+        this(DEFAULT_INSERTION_COST, DEFAULT_DELETION_COST, DEFAULT_SUBSTITUTION_COST);
     }
 
     /**
-     * Default Constructor.
+     * Constructor.
+     *
+     * @param insertionCost    cost for "insertion"
+     * @param deletionCost     cost for "deletion"
+     * @param substitutionCost cost for "substitution"
      */
-    private LevenshteinDistance() {
+    public LevenshteinDistance(int insertionCost, int deletionCost, int substitutionCost) {
+        if (insertionCost < 0 || deletionCost < 0 || substitutionCost < 0) {
+            throw new IllegalArgumentException("Edit costs must not be negative");
+        }
+        this.insertionCost = insertionCost;
+        this.deletionCost = deletionCost;
+        this.substitutionCost = substitutionCost;
     }
 
     /**
@@ -63,7 +89,7 @@ public final class LevenshteinDistance {
      * @return the cost for "insertion"
      */
     public static int getInsertionCost() {
-        return INSERTION_COST;
+        return defaultDistance.insertionCost;
     }
 
     /**
@@ -72,7 +98,9 @@ public final class LevenshteinDistance {
      * @param cost a cost for "insertion"
      */
     public static synchronized void setInsertionCost(int cost) {
-        INSERTION_COST = cost;
+        LevenshteinDistance current = defaultDistance;
+        defaultDistance = new LevenshteinDistance(
+                cost, current.deletionCost, current.substitutionCost);
     }
 
     /**
@@ -81,7 +109,7 @@ public final class LevenshteinDistance {
      * @return the cost for "deletion"
      */
     public static int getDeletionCost() {
-        return DELETION_COST;
+        return defaultDistance.deletionCost;
     }
 
     /**
@@ -90,7 +118,9 @@ public final class LevenshteinDistance {
      * @param cost a cost for "deletio"
      */
     public static synchronized void setDeletionCost(int cost) {
-        DELETION_COST = cost;
+        LevenshteinDistance current = defaultDistance;
+        defaultDistance = new LevenshteinDistance(
+                current.insertionCost, cost, current.substitutionCost);
     }
 
     /**
@@ -99,7 +129,7 @@ public final class LevenshteinDistance {
      * @return the cost for "substitution"
      */
     public static int getSubstitutionCost() {
-        return SUBSTITUTION_COST;
+        return defaultDistance.substitutionCost;
     }
 
     /**
@@ -108,11 +138,14 @@ public final class LevenshteinDistance {
      * @param cost a cost for "substitution"
      */
     public static synchronized void setSubstitutionCost(int cost) {
-        SUBSTITUTION_COST = cost;
+        LevenshteinDistance current = defaultDistance;
+        defaultDistance = new LevenshteinDistance(
+                current.insertionCost, current.deletionCost, cost);
     }
 
     /**
-     * Get the Levenshtein distance for given two strings.
+     * Get the Levenshtein distance for given two strings
+     * with the default costs.
      *
      * @param a a string.
      * @param b one another string.
@@ -120,41 +153,245 @@ public final class LevenshteinDistance {
      * @see http://en.wikipedia.org/wiki/Levenshtein_distance.
      */
     public static int getDistance(CharSequence a, CharSequence b) {
-        if (a == null && b == null) {
-            return 0;
+        return defaultDistance.distance(a, b);
+    }
+
+    /**
+     * Get the Levenshtein distance for given two strings
+     * with the default costs, giving up once it exceeds a limit.
+     *
+     * @param a     a string.
+     * @param b     one another string.
+     * @param limit the largest distance of interest
+     * @return Levenshtein distance, or limit + 1 when it is larger than limit.
+     */
+    public static int getDistance(CharSequence a, CharSequence b, int limit) {
+        return defaultDistance.distance(a, b, limit);
+    }
+
+    /**
+     * Get the Levenshtein distance for given two strings.
+     * A null string is regarded as empty.
+     *
+     * @param a a string.
+     * @param b one another string.
+     * @return Levenshtein distance.
+     */
+    public int distance(CharSequence a, CharSequence b) {
+        return distance(a, b, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the Levenshtein distance for given two strings, giving up once it
+     * is known to exceed a limit. A null string is regarded as empty.
+     *
+     * @param a     a string.
+     * @param b     one another string.
+     * @param limit the largest distance of interest
+     * @return Levenshtein distance, or limit + 1 when it is larger than limit.
+     */
+    public int distance(CharSequence a, CharSequence b, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
         }
-        if (a == null && b != null) {
-            return b.length() * INSERTION_COST;
+        if (a == null) {
+            a = "";
         }
-        if (a != null && b == null) {
-            return a.length() * INSERTION_COST;
+        if (b == null) {
+            b = "";
         }
-
         final int lengthA = a.length();
         final int lengthB = b.length();
-        int[][] distance = new int[lengthA + 1][lengthB + 1];
+        // deleting all of a and inserting all of b is always possible, so
+        // the limit never needs to be larger (this also keeps sums in range)
+        long upperBound = (long) lengthA * deletionCost + (long) lengthB * insertionCost;
+        limit = (int) Math.min(limit, Math.min(upperBound, Integer.MAX_VALUE - 1));
+        // the length difference alone needs this many insertions or deletions
+        long lowerBound = lengthA > lengthB
+                ? (long) (lengthA - lengthB) * deletionCost
+                : (long) (lengthB - lengthA) * insertionCost;
+        if (lowerBound > limit) {
+            return limit + 1;
+        }
+        if (lengthA == 0 || lengthB == 0) {
+            return (int) lowerBound;
+        }
+        if (isUnitCost()) {
+            // unit costs are symmetric, so use the shorter string as pattern
+            if (lengthA <= MAX_BIT_PARALLEL_LENGTH && lengthA <= lengthB) {
+                return bitParallelDistance(a, b, limit);
+            }
+            if (lengthB <= MAX_BIT_PARALLEL_LENGTH) {
+                return bitParallelDistance(b, a, limit);
+            }
+        }
+        return bandedDistance(a, b, limit);
+    }
 
-        // Initialization
-        for (int i = 0; i < lengthA + 1; i++) {
-            distance[i][0] = i * DELETION_COST;
+    private boolean isUnitCost() {
+        return insertionCost == 1 && deletionCost == 1 && substitutionCost == 1;
+    }
+
+    /**
+     * Myers' bit-vector algorithm in the formulation of Hyyro, computing the
+     * last row of the matrix one text character at a time.
+     */
+    private static int bitParallelDistance(CharSequence pattern, CharSequence text, int limit) {
+        final int m = pattern.length();
+        final int n = text.length();
+        Workspace workspace = WORKSPACE.get();
+        workspace.buildPeq(pattern);
+        try {
+            final long last = 1L << (m - 1);
+            long pv = -1L;
+            long mv = 0L;
+            int score = m;
+            for (int j = 0; j < n; j++) {
+                long eq = workspace.peq(text.charAt(j));
+                long xv = eq | mv;
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                if ((ph & last) != 0) {
+                    score++;
+                } else if ((mh & last) != 0) {
+                    score--;
+                }
+                ph = (ph << 1) | 1L;
+                mh <<= 1;
+                pv = mh | ~(xv | ph);
+                mv = ph & xv;
+                // each remaining character lowers the score by one at most
+                if (score - (n - j - 1) > limit) {
+                    return limit + 1;
+                }
+            }
+            return score;
+        } finally {
+            workspace.clearPeq();
         }
-        for (int j = 0; j < lengthB + 1; j++) {
-            distance[0][j] = j * INSERTION_COST;
+    }
+
+    /**
+     * Dynamic programming over two rolling rows, restricted to the diagonal
+     * band that can stay within the limit, stopping as soon as a whole row
+     * exceeds it.
+     */
+    private int bandedDistance(CharSequence a, CharSequence b, int limit) {
+        final int lengthA = a.length();
+        final int lengthB = b.length();
+        final int exceeded = limit + 1;
+        // how far a cell may lie below / above the diagonal
+        final int below = deletionCost == 0 ? lengthA : Math.min(lengthA, limit / deletionCost);
+        final int above = insertionCost == 0 ? lengthB : Math.min(lengthB, limit / insertionCost);
+
+        Workspace workspace = WORKSPACE.get();
+        int[] previous = workspace.row(0, lengthB + 1);
+        int[] current = workspace.row(1, lengthB + 1);
+        for (int j = 0; j <= lengthB; j++) {
+            previous[j] = j <= above ? saturate((long) j * insertionCost, exceeded) : exceeded;
         }
 
-        for (int i = 1; i < lengthA + 1; i++) {
-            for (int j = 1; j < lengthB + 1; j++) {
-                if (a.charAt(i - 1) == b.charAt(j - 1)) {
-                    distance[i][j] = distance[i - 1][j - 1];
+        for (int i = 1; i <= lengthA; i++) {
+            final int from = Math.max(0, i - below);
+            final int to = Math.min(lengthB, i + above);
+            int rowMinimum = exceeded;
+            if (from == 0) {
+                current[0] = saturate((long) i * deletionCost, exceeded);
+                rowMinimum = current[0];
+            } else {
+                current[from - 1] = exceeded;
+            }
+            final char c = a.charAt(i - 1);
+            for (int j = Math.max(1, from); j <= to; j++) {
+                int value;
+                if (c == b.charAt(j - 1)) {
+                    value = previous[j - 1];
                 } else {
-                    distance[i][j] = Math.min(Math.min(
-                                    distance[i - 1][j] + DELETION_COST,
-                                    distance[i][j - 1] + INSERTION_COST),
-                            distance[i - 1][j - 1] + SUBSTITUTION_COST);
+                    value = Math.min(Math.min(
+                                    previous[j] + deletionCost,
+                                    current[j - 1] + insertionCost),
+                            previous[j - 1] + substitutionCost);
+                }
+                if (value > exceeded) {
+                    value = exceeded;
                 }
+                current[j] = value;
+                if (value < rowMinimum) {
+                    rowMinimum = value;
+                }
+            }
+            if (to < lengthB) {
+                current[to + 1] = exceeded;
             }
+            if (rowMinimum > limit) {
+                return exceeded;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
+        return previous[lengthB];
+    }
 
-        return distance[lengthA][lengthB];
+    private static int saturate(long value, int exceeded) {
+        return value > exceeded ? exceeded : (int) value;
+    }
+
+    /**
+     * Per thread buffers, so that computing a distance does not allocate.
+     */
+    private static final class Workspace {
+        private static final int PEQ_SLOTS = 128;
+
+        private final int[][] rows = new int[2][16];
+        private final char[] peqKeys = new char[PEQ_SLOTS];
+        private final long[] peqMasks = new long[PEQ_SLOTS];
+        private final int[] usedSlots = new int[MAX_BIT_PARALLEL_LENGTH];
+        private int usedCount;
+
+        private int[] row(int index, int length) {
+            if (rows[index].length < length) {
+                rows[index] = new int[Math.max(length, rows[index].length * 2)];
+            }
+            return rows[index];
+        }
+
+        private static int slot(char c) {
+            return (c * 0x9E3779B1) >>> 25;
+        }
+
+        private void buildPeq(CharSequence pattern) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int slot = slot(c);
+                while (peqMasks[slot] != 0 && peqKeys[slot] != c) {
+                    slot = (slot + 1) & (PEQ_SLOTS - 1);
+                }
+                if (peqMasks[slot] == 0) {
+                    peqKeys[slot] = c;
+                    usedSlots[usedCount++] = slot;
+                }
+                peqMasks[slot] |= 1L << i;
+            }
+        }
+
+        private long peq(char c) {
+            int slot = slot(c);
+            while (peqMasks[slot] != 0) {
+                if (peqKeys[slot] == c) {
+                    return peqMasks[slot];
+                }
+                slot = (slot + 1) & (PEQ_SLOTS - 1);
+            }
+            return 0L;
+        }
+
+        private void clearPeq() {
+            for (int i = 0; i < usedCount; i++) {
+                peqMasks[usedSlots[i]] = 0L;
+            }
+            usedCount = 0;
+        }
     }
 }
@@ -0,0 +1,188 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import cc.redpen.ValidationError;
+import cc.redpen.model.Sentence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs several character validators in a single pass over the content of
+ * a sentence. Each character is passed to the validators reading every
+ * character and to the validators having it as a trigger character.
+ */
+public final class CharacterScanner {
+    private static final int[] NONE = new int[0];
+
+    private final List<CharacterValidator> validators;
+    /* indices of the validators reading every character */
+    private final int[] everyCharacter;
+    /* indices of the validators triggered by each ASCII character */
+    private final int[][] asciiTriggers = new int[128][];
+    /* sorted non ASCII trigger characters and the indices of their validators */
+    private final char[] otherTriggerChars;
+    private final int[][] otherTriggers;
+    /* false when no validator reads any character */
+    private final boolean readsCharacters;
+
+    /**
+     * Constructor.
+     *
+     * @param validators validators to run, the errors are reported by their indices
+     */
+    public CharacterScanner(List<? extends CharacterValidator> validators) {
+        this.validators = new ArrayList<>(validators);
+        List<Integer> every = new ArrayList<>();
+        Map<Character, List<Integer>> triggers = new TreeMap<>();
+        for (int i = 0; i < this.validators.size(); i++) {
+            String triggerCharacters = this.validators.get(i).getTriggerCharacters();
+            if (triggerCharacters == null) {
+                every.add(i);
+                continue;
+            }
+            for (int j = 0; j < triggerCharacters.length(); j++) {
+                List<Integer> indices = triggers.computeIfAbsent(
+                        triggerCharacters.charAt(j), k -> new ArrayList<>());
+                if (!indices.contains(i)) {
+                    indices.add(i);
+                }
+            }
+        }
+        everyCharacter = toArray(every);
+
+        Arrays.fill(asciiTriggers, NONE);
+        List<Character> otherChars = new ArrayList<>();
+        List<int[]> otherIndices = new ArrayList<>();
+        for (Map.Entry<Character, List<Integer>> trigger : triggers.entrySet()) {
+            char ch = trigger.getKey();
+            if (ch < asciiTriggers.length) {
+                asciiTriggers[ch] = toArray(trigger.getValue());
+            } else {
+                otherChars.add(ch);
+                otherIndices.add(toArray(trigger.getValue()));
+            }
+        }
+        otherTriggerChars = new char[otherChars.size()];
+        for (int i = 0; i < otherTriggerChars.length; i++) {
+            otherTriggerChars[i] = otherChars.get(i);
+        }
+        otherTriggers = otherIndices.toArray(new int[otherIndices.size()][]);
+        readsCharacters = everyCharacter.length > 0 || !triggers.isEmpty();
+    }
+
+    /**
+     * Validate a sentence with a single validator.
+     *
+     * @param validator validator
+     * @param sentence  sentence
+     * @return errors of the validator
+     */
+    public static List<ValidationError> validate(CharacterValidator validator, Sentence sentence) {
+        List<ValidationError> errors = new ArrayList<>();
+        CharacterValidator.CharacterScan scan = validator.startScan(sentence);
+        if (scan == null) {
+            return errors;
+        }
+        String triggerCharacters = validator.getTriggerCharacters();
+        if (triggerCharacters == null || !triggerCharacters.isEmpty()) {
+            String content = sentence.content;
+            for (int i = 0; i < content.length(); i++) {
+                char ch = content.charAt(i);
+                if (triggerCharacters == null || triggerCharacters.indexOf(ch) >= 0) {
+                    scan.accept(i, ch);
+                }
+            }
+        }
+        scan.finish(errors);
+        return errors;
+    }
+
+    /**
+     * Get the number of validators.
+     *
+     * @return number of validators
+     */
+    public int size() {
+        return validators.size();
+    }
+
+    /**
+     * Read a sentence once for the active validators.
+     *
+     * @param sentence sentence
+     * @param active   tells whether each validator reads the sentence, null for all of them
+     * @param errors   receives the errors of each validator at its index
+     */
+    public void scan(Sentence sentence, boolean[] active, List<List<ValidationError>> errors) {
+        CharacterValidator.CharacterScan[] scans =
+                new CharacterValidator.CharacterScan[validators.size()];
+        boolean started = false;
+        for (int i = 0; i < scans.length; i++) {
+            if (active == null || active[i]) {
+                scans[i] = validators.get(i).startScan(sentence);
+                started |= scans[i] != null;
+            }
+        }
+        if (!started) {
+            return;
+        }
+
+        String content = sentence.content;
+        for (int i = 0; readsCharacters && i < content.length(); i++) {
+            char ch = content.charAt(i);
+            for (int index : everyCharacter) {
+                accept(scans[index], i, ch);
+            }
+            int[] triggered;
+            if (ch < asciiTriggers.length) {
+                triggered = asciiTriggers[ch];
+            } else {
+                int found = Arrays.binarySearch(otherTriggerChars, ch);
+                triggered = found >= 0 ? otherTriggers[found] : NONE;
+            }
+            for (int index : triggered) {
+                accept(scans[index], i, ch);
+            }
+        }
+
+        for (int i = 0; i < scans.length; i++) {
+            if (scans[i] != null) {
+                scans[i].finish(errors.get(i));
+            }
+        }
+    }
+
+    private static void accept(CharacterValidator.CharacterScan scan, int index, char ch) {
+        if (scan != null) {
+            scan.accept(index, ch);
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
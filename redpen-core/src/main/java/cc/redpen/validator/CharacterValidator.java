@@ -0,0 +1,69 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import cc.redpen.ValidationError;
+import cc.redpen.model.Sentence;
+
+import java.util.List;
+
+/**
+ * Sentence validator which reads the content of a sentence one character
+ * at a time, from the first to the last. RedPen reads each sentence once
+ * for all such validators with a {@link CharacterScanner}, instead of
+ * calling validate() on each of them.
+ */
+public interface CharacterValidator {
+    /**
+     * Characters passed to the scans of this validator.
+     *
+     * @return characters to receive, null for every character, an empty
+     * string when the validator only needs the sentence itself
+     */
+    String getTriggerCharacters();
+
+    /**
+     * Start reading a sentence.
+     *
+     * @param sentence sentence to read
+     * @return scan receiving the characters, null to skip the sentence
+     */
+    CharacterScan startScan(Sentence sentence);
+
+    /**
+     * State of a validator while reading one sentence.
+     */
+    @FunctionalInterface
+    interface CharacterScan {
+        /**
+         * Receive a trigger character of the sentence.
+         *
+         * @param index position of the character in the content
+         * @param ch    character
+         */
+        default void accept(int index, char ch) {
+        }
+
+        /**
+         * Called after the last character of the sentence.
+         *
+         * @param errors receives the errors found in the sentence
+         */
+        void finish(List<ValidationError> errors);
+    }
+}
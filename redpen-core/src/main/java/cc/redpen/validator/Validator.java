@@ -31,7 +31,7 @@ import java.util.Optional;
 /**
  * Validate input document.
  */
-public abstract class Validator<E> {
+public abstract class Validator<E> implements Cloneable {
     private static final Logger LOG =
             LoggerFactory.getLogger(Validator.class);
 
@@ -55,6 +55,33 @@ public abstract class Validator<E> {
     protected void init() throws RedPenException {
     }
 
+    /**
+     * Return the validator to use for a single validation run.
+     * Validators which keep state while validating override this to return
+     * a copy with empty state, sharing the loaded resources such as
+     * dictionaries. Stateless validators are shared by all the runs.
+     *
+     * @return validator for one validation run
+     */
+    public Validator<E> fork() {
+        return this;
+    }
+
+    /**
+     * Create a shallow copy of this validator, which shares the configuration
+     * and the loaded resources.
+     *
+     * @return copy of this validator
+     */
+    @SuppressWarnings("unchecked")
+    protected final Validator<E> copy() {
+        try {
+            return (Validator<E>) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     protected Optional<String> getConfigAttribute(String attributeName) {
         return Optional.ofNullable(config.getAttribute(attributeName));
     }
@@ -21,17 +21,19 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Validate the number of commas in one sentence.
  */
-public class CommaNumberValidator extends Validator<Sentence> {
+public class CommaNumberValidator extends Validator<Sentence>
+        implements CharacterValidator {
     /**
      * Default maximum number of comma.
      */
@@ -47,22 +49,44 @@ public class CommaNumberValidator extends Validator<Sentence> {
     private String comma = DEFAULT_COMMA;
 
     public List<ValidationError> validate(Sentence line) {
-        List<ValidationError> result = new ArrayList<>();
-        String content = line.content;
-        int commaCount = 0;
-        int position = 0;
-        while (position != -1) {
-            position = content.indexOf(this.comma);
-            commaCount++;
-            content = content.substring(position + 1, content.length());
+        return CharacterScanner.validate(this, line);
+    }
+
+    @Override
+    public String getTriggerCharacters() {
+        return comma.substring(0, 1);
+    }
+
+    @Override
+    public CharacterScan startScan(Sentence line) {
+        return new CommaScan(line);
+    }
+
+    private final class CommaScan implements CharacterScan {
+        private final Sentence line;
+        // NOTE: counts the parts separated by the commas
+        private int commaCount = 1;
+
+        CommaScan(Sentence line) {
+            this.line = line;
         }
-        if (maxCommaNum < commaCount) {
-            result.add(new ValidationError(
-                    this.getClass(),
-                    "The number of comma is exceeds the maximum \""
-                            + String.valueOf(commaCount) + "\".", line));
+
+        @Override
+        public void accept(int index, char ch) {
+            if (line.content.startsWith(comma, index)) {
+                commaCount++;
+            }
+        }
+
+        @Override
+        public void finish(List<ValidationError> errors) {
+            if (maxCommaNum < commaCount) {
+                errors.add(new ValidationError(
+                        CommaNumberValidator.this.getClass(),
+                        "The number of comma is exceeds the maximum \""
+                                + String.valueOf(commaCount) + "\".", line));
+            }
         }
-        return result;
     }
 
     @Override
@@ -125,8 +125,12 @@ public class ContractionValidator extends Validator<Sentence> implements PreProc
     @Override
     public List<ValidationError> validate(Sentence block) {
         List<ValidationError> errors = new ArrayList<>();
-        String [] words = block.content.toLowerCase().split(" ");
-        for (String word : words) {
+        for (String word : block.getWords()) {
+            // all the contractions contain an apostrophe
+            if (word.indexOf('\'') < 0) {
+                continue;
+            }
+            word = word.toLowerCase();
             if (foundNonContractionNum >= foundContractionNum
                     && contractions.contains(word)) {
                 errors.add(new ValidationError(
@@ -138,10 +142,18 @@ public class ContractionValidator extends Validator<Sentence> implements PreProc
         return errors;
     }
 
+    @Override
+    public Validator<Sentence> fork() {
+        ContractionValidator fork = (ContractionValidator) copy();
+        fork.foundContractionNum = 0;
+        fork.foundNonContractionNum = 0;
+        return fork;
+    }
+
     @Override
     public void preprocess(Sentence block) {
-        String [] words = block.content.toLowerCase().split(" ");
-        for (String word : words) {
+        for (String word : block.getWords()) {
+            word = word.toLowerCase();
             if (contractions.contains(word)) {
                 foundContractionNum += 1;
             } else if (nonContractions.contains(word)) {
@@ -20,6 +20,7 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.AhoCorasickMatcher;
 import cc.redpen.util.ResourceLoader;
 import cc.redpen.util.WordListExtractor;
 import cc.redpen.validator.Validator;
@@ -41,16 +42,20 @@ public class InvalidExpressionValidator extends Validator<Sentence> {
     private static final Logger LOG =
             LoggerFactory.getLogger(InvalidExpressionValidator.class);
     private Set<String> invalidExpressions = new HashSet<>();
+    /* built from the expressions at the first validation after they change, null until then */
+    private volatile AhoCorasickMatcher matcher;
 
     public List<ValidationError> validate(Sentence line) {
+        AhoCorasickMatcher current = matcher;
+        if (current == null) {
+            current = new AhoCorasickMatcher(invalidExpressions);
+            matcher = current;
+        }
         List<ValidationError> result = new ArrayList<>();
-        String str = line.content;
-        for (String w : invalidExpressions) {
-            if (str.contains(w)) {
-                result.add(new ValidationError(
-                        this.getClass(),
-                        "Found invalid expression: \"" + w + "\"", line));
-            }
+        for (String w : current.findPatterns(line.content).keySet()) {
+            result.add(new ValidationError(
+                    this.getClass(),
+                    "Found invalid expression: \"" + w + "\"", line));
         }
         return result;
     }
@@ -62,6 +67,7 @@ public class InvalidExpressionValidator extends Validator<Sentence> {
      */
     public void addInvalid(String invalid) {
         invalidExpressions.add(invalid);
+        matcher = null;
     }
 
     @Override
@@ -96,5 +102,6 @@ public class InvalidExpressionValidator extends Validator<Sentence> {
         });
 
         invalidExpressions = extractor.get();
+        matcher = null;
     }
 }
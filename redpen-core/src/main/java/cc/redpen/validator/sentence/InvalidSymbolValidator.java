@@ -17,44 +17,78 @@
  */
 package cc.redpen.validator.sentence;
 
+import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
-import cc.redpen.config.Symbol;
+import cc.redpen.config.SymbolLookup;
 import cc.redpen.model.Sentence;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.Validator;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * Validate if there is invalid characters in sentences.
  */
-public class InvalidSymbolValidator extends Validator<Sentence> {
+public class InvalidSymbolValidator extends Validator<Sentence>
+        implements CharacterValidator {
+    private SymbolLookup invalidSymbols = SymbolLookup.EMPTY;
 
     public List<ValidationError> validate(Sentence sentence) {
-        List<ValidationError> errors = new ArrayList<>();
-        Set<String> names = getSymbolTable().getNames();
-        for (String name : names) {
-            ValidationError error = validateSymbol(sentence, name);
-            if (error != null) {
-                errors.add(error);
-            }
-        }
-        return errors;
+        return CharacterScanner.validate(this, sentence);
+    }
+
+    @Override
+    public String getTriggerCharacters() {
+        return invalidSymbols.getFirstCharacters();
     }
 
-    private ValidationError validateSymbol(Sentence sentence, String name) {
-        String sentenceStr = sentence.content;
-        Symbol symbol = getSymbolTable().getSymbol(name);
-        List<String> invalidCharsList = symbol.getInvalidSymbols();
-        for (String invalidChar : invalidCharsList) {
-            if (sentenceStr.contains(invalidChar)) {
-                return new ValidationError(
-                        this.getClass(),
-                        "Invalid symbol found: \"" + invalidChar + "\"",
-                        sentence);
+    @Override
+    public CharacterScan startScan(Sentence sentence) {
+        return new InvalidSymbolScan(sentence);
+    }
+
+    /**
+     * Reports the first invalid character of each symbol in a sentence.
+     */
+    private final class InvalidSymbolScan implements CharacterScan {
+        private final Sentence sentence;
+        private final List<ValidationError> errors = new ArrayList<>();
+        private Set<String> reportedNames;
+
+        InvalidSymbolScan(Sentence sentence) {
+            this.sentence = sentence;
+        }
+
+        @Override
+        public void accept(int index, char ch) {
+            for (SymbolLookup.Entry entry : invalidSymbols.get(ch)) {
+                if (!sentence.content.startsWith(entry.getText(), index)) {
+                    continue;
+                }
+                if (reportedNames == null) {
+                    reportedNames = new HashSet<>();
+                }
+                if (reportedNames.add(entry.getSymbol().getName())) {
+                    errors.add(new ValidationError(
+                            InvalidSymbolValidator.this.getClass(),
+                            "Invalid symbol found: \"" + entry.getText() + "\"",
+                            sentence));
+                }
             }
         }
-        return null;
+
+        @Override
+        public void finish(List<ValidationError> errors) {
+            errors.addAll(this.errors);
+        }
+    }
+
+    @Override
+    protected void init() throws RedPenException {
+        invalidSymbols = SymbolLookup.ofInvalidSymbols(getSymbolTable());
     }
 }
@@ -28,7 +28,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -46,14 +45,18 @@ public class InvalidWordValidator extends Validator<Sentence> {
 
     public List<ValidationError> validate(Sentence line) {
         List<ValidationError> result = new ArrayList<>();
-        String content = line.content;
+        Set<String> found = null;
         //NOTE: only Ascii white space since this validator works for european languages.
-        List<String> words = Arrays.asList(content.split(" "));
-        for (String invalidWord : invalidWords) {
-            if (words.contains(invalidWord)) {
-                result.add(new ValidationError(
-                        this.getClass(),
-                        "Found invalid Word: \"" + invalidWord + "\"", line));
+        for (String word : line.getWords()) {
+            if (invalidWords.contains(word)) {
+                if (found == null) {
+                    found = new HashSet<>();
+                }
+                if (found.add(word)) {
+                    result.add(new ValidationError(
+                            this.getClass(),
+                            "Found invalid Word: \"" + word + "\"", line));
+                }
             }
         }
         return result;
@@ -21,6 +21,8 @@ import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
 import cc.redpen.util.StringUtils;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.Validator;
 
 import java.util.ArrayList;
@@ -45,7 +47,8 @@ import java.util.List;
  * <p>
  * Note that KatakanaEndHyphenValidator only checks the rules a) and b).
  */
-public class KatakanaEndHyphenValidator extends Validator<Sentence> {
+public class KatakanaEndHyphenValidator extends Validator<Sentence>
+        implements CharacterValidator {
     /**
      * Default Katakana limit length without hypen.
      */
@@ -69,38 +72,59 @@ public class KatakanaEndHyphenValidator extends Validator<Sentence> {
     }
 
     public List<ValidationError> validate(Sentence sentence) {
-        List<ValidationError> errors = new ArrayList<>();
-        List<ValidationError> result;
-        StringBuffer katakana = new StringBuffer("");
-        for (int i = 0; i < sentence.content.length(); i++) {
-            char c = sentence.content.charAt(i);
-            if (StringUtils.isKatakana(c) && c != KATAKANA_MIDDLE_DOT) {
-                katakana.append(c);
-            } else {
-                result = this.checkKatakanaEndHyphen(sentence, katakana);
-                if (result != null) {
-                    errors.addAll(result);
+        return CharacterScanner.validate(this, sentence);
+    }
+
+    @Override
+    public String getTriggerCharacters() {
+        return null;
+    }
+
+    @Override
+    public CharacterScan startScan(Sentence sentence) {
+        return new KatakanaScan(sentence);
+    }
+
+    /**
+     * Reads the Katakana words of a sentence, as runs of Katakana characters.
+     */
+    private final class KatakanaScan implements CharacterScan {
+        private final Sentence sentence;
+        private final List<ValidationError> errors = new ArrayList<>();
+        private int wordStart = -1;
+
+        KatakanaScan(Sentence sentence) {
+            this.sentence = sentence;
+        }
+
+        @Override
+        public void accept(int index, char ch) {
+            if (StringUtils.isKatakana(ch) && ch != KATAKANA_MIDDLE_DOT) {
+                if (wordStart < 0) {
+                    wordStart = index;
                 }
-                katakana.delete(0, katakana.length());
+            } else {
+                checkWord(index);
             }
         }
-        result = this.checkKatakanaEndHyphen(sentence, katakana);
-        if (result != null) {
-            errors.addAll(result);
+
+        @Override
+        public void finish(List<ValidationError> errors) {
+            checkWord(sentence.content.length());
+            errors.addAll(this.errors);
         }
-        return errors;
-    }
 
-    private List<ValidationError> checkKatakanaEndHyphen(Sentence sentence,
-                                                         StringBuffer katakana) {
-        List<ValidationError> errors = new ArrayList<>();
-        if (isKatakanaEndHyphen(katakana)) {
-            errors.add(new ValidationError(
-                    this.getClass(),
-                    "Invalid Katakana end hypen found \"" + katakana.toString() + "\"",
-                    sentence));
+        private void checkWord(int end) {
+            if (wordStart >= 0 && DEFAULT_KATAKANA_LIMIT_LENGTH < end - wordStart
+                    && sentence.content.charAt(end - 1) == HYPHEN) {
+                errors.add(new ValidationError(
+                        KatakanaEndHyphenValidator.this.getClass(),
+                        "Invalid Katakana end hypen found \""
+                                + sentence.content.substring(wordStart, end) + "\"",
+                        sentence));
+            }
+            wordStart = -1;
         }
-        return errors;
     }
 
     @Override
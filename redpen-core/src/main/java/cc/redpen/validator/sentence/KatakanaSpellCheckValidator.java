@@ -20,10 +20,11 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
-import cc.redpen.util.LevenshteinDistance;
+import cc.redpen.util.BKTree;
 import cc.redpen.util.ResourceLoader;
 import cc.redpen.util.StringUtils;
 import cc.redpen.util.WordListExtractor;
+import cc.redpen.validator.StatefulValidator;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,7 +52,8 @@ import java.util.*;
  * word is smaller than the threshold, we do not detect
  * the similarity.
  */
-public class KatakanaSpellCheckValidator extends Validator<Sentence> {
+public class KatakanaSpellCheckValidator extends Validator<Sentence>
+        implements StatefulValidator {
     /**
      * The default similarity ratio between the length and the distance.
      */
@@ -66,11 +68,12 @@ public class KatakanaSpellCheckValidator extends Validator<Sentence> {
      */
     private static final String DEFAULT_RESOURCE_PATH = "default-resources/katakana";
     /**
-     * Katakana word dic with line number.
+     * Katakana word dic with line number, indexed by the edit distance.
+     * The words are collected in each validation run.
      */
-    private HashMap<String, Integer> dic = new HashMap<>();
+    private BKTree<Integer> dic = new BKTree<>();
     /**
-     * Exception word list.
+     * Exception word list, shared by the forked validators.
      */
     private Set<String> exceptions = new HashSet<>();
     /**
@@ -112,25 +115,29 @@ public class KatakanaSpellCheckValidator extends Validator<Sentence> {
         }
         final int minLsDistance =
                 Math.round(katakana.length() * SIMILARITY_RATIO);
-        boolean found = false;
         List<ValidationError> errors = new ArrayList<>();
-        for (String key : dic.keySet()) {
-            if (LevenshteinDistance.getDistance(key, katakana) <= minLsDistance) {
-                found = true;
-                errors.add(new ValidationError(
-                        this.getClass(),
-                        "Found a Katakana word: \"" + katakana + "\""
-                                + ", which is similar to \"" + key + "\""
-                                + " at postion " + dic.get(key).toString() + ".",
-                        sentence));
-            }
+        Map<String, Integer> similarWords = dic.search(katakana, minLsDistance);
+        for (Map.Entry<String, Integer> similar : similarWords.entrySet()) {
+            errors.add(new ValidationError(
+                    this.getClass(),
+                    "Found a Katakana word: \"" + katakana + "\""
+                            + ", which is similar to \"" + similar.getKey() + "\""
+                            + " at postion " + similar.getValue().toString() + ".",
+                    sentence));
         }
-        if (!found) {
+        if (similarWords.isEmpty()) {
             dic.put(katakana, sentence.position);
         }
         return errors;
     }
 
+    @Override
+    public Validator<Sentence> fork() {
+        KatakanaSpellCheckValidator fork = (KatakanaSpellCheckValidator) copy();
+        fork.dic = new BKTree<>();
+        return fork;
+    }
+
     @Override
     protected void init() throws RedPenException {
         WordListExtractor extractor = new WordListExtractor();
@@ -22,6 +22,8 @@ import cc.redpen.ValidationError;
 import cc.redpen.config.Symbol;
 import cc.redpen.model.Sentence;
 import cc.redpen.symbol.DefaultSymbols;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.Validator;
 
 import java.util.ArrayList;
@@ -30,7 +32,8 @@ import java.util.List;
 /**
  * Validator to validate quotation characters.
  */
-public class QuotationValidator extends Validator<Sentence> {
+public class QuotationValidator extends Validator<Sentence>
+        implements CharacterValidator {
 
     private static final List<String> DEFAULT_EXCEPTION_SUFFIXES;
 
@@ -69,18 +72,59 @@ public class QuotationValidator extends Validator<Sentence> {
 
     @Override
     public List<ValidationError> validate(Sentence sentence) {
-        List<ValidationError> errors = new ArrayList<>();
-        // validate single quotation
-        List<ValidationError> result = this.checkQuotation(sentence,
-                leftSingleQuotationMark, rightSingleQuotationMark);
-        if (result != null) {
-            errors.addAll(result);
+        return CharacterScanner.validate(this, sentence);
+    }
+
+    @Override
+    public String getTriggerCharacters() {
+        return leftSingleQuotationMark.getValue().substring(0, 1)
+                + rightSingleQuotationMark.getValue().substring(0, 1)
+                + leftDoubleQuotationMark.getValue().substring(0, 1)
+                + rightDoubleQuotationMark.getValue().substring(0, 1);
+    }
+
+    @Override
+    public CharacterScan startScan(Sentence sentence) {
+        return new QuotationScan(sentence);
+    }
+
+    /**
+     * Checks the quotation marks of a sentence only when it contains some.
+     */
+    private final class QuotationScan implements CharacterScan {
+        private final Sentence sentence;
+        private boolean hasSingleQuotation;
+        private boolean hasDoubleQuotation;
+
+        QuotationScan(Sentence sentence) {
+            this.sentence = sentence;
         }
 
-        // validate double quotation
-        errors.addAll(this.checkQuotation(sentence,
-                leftDoubleQuotationMark, rightDoubleQuotationMark));
-        return errors;
+        @Override
+        public void accept(int index, char ch) {
+            hasSingleQuotation |= startsWith(index, leftSingleQuotationMark)
+                    || startsWith(index, rightSingleQuotationMark);
+            hasDoubleQuotation |= startsWith(index, leftDoubleQuotationMark)
+                    || startsWith(index, rightDoubleQuotationMark);
+        }
+
+        @Override
+        public void finish(List<ValidationError> errors) {
+            // validate single quotation
+            if (hasSingleQuotation) {
+                errors.addAll(checkQuotation(sentence,
+                        leftSingleQuotationMark, rightSingleQuotationMark));
+            }
+            // validate double quotation
+            if (hasDoubleQuotation) {
+                errors.addAll(checkQuotation(sentence,
+                        leftDoubleQuotationMark, rightDoubleQuotationMark));
+            }
+        }
+
+        private boolean startsWith(int index, Symbol quotation) {
+            return sentence.content.startsWith(quotation.getValue(), index);
+        }
     }
 
     @Override
@@ -20,17 +20,19 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Validate input sentences contain more characters more than specified.
  */
-public class SentenceLengthValidator extends Validator<Sentence> {
+public class SentenceLengthValidator extends Validator<Sentence>
+        implements CharacterValidator {
     /**
      * Default maximum length of sentences.
      */
@@ -41,15 +43,24 @@ public class SentenceLengthValidator extends Validator<Sentence> {
     private int maxLength = DEFAULT_MAX_LENGTH;
 
     public List<ValidationError> validate(Sentence line) {
-        List<ValidationError> result = new ArrayList<>();
-        if (line.content.length() > maxLength) {
-            result.add(new ValidationError(
-                    this.getClass(),
-                    "The length of the line exceeds the maximum "
-                            + String.valueOf(line.content.length()) + ".",
-                    line));
+        return CharacterScanner.validate(this, line);
+    }
+
+    @Override
+    public String getTriggerCharacters() {
+        return "";
+    }
+
+    @Override
+    public CharacterScan startScan(Sentence line) {
+        if (line.content.length() <= maxLength) {
+            return null;
         }
-        return result;
+        return errors -> errors.add(new ValidationError(
+                this.getClass(),
+                "The length of the line exceeds the maximum "
+                        + String.valueOf(line.content.length()) + ".",
+                line));
     }
 
     @Override
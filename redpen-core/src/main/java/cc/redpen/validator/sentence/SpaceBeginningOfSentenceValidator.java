@@ -19,27 +19,37 @@ package cc.redpen.validator.sentence;
 
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.Validator;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Validate input sentences except for first sentence of a paragraph start with
  * a space.
  */
-public class SpaceBeginningOfSentenceValidator extends Validator<Sentence> {
+public class SpaceBeginningOfSentenceValidator extends Validator<Sentence>
+        implements CharacterValidator {
 
     public List<ValidationError> validate(Sentence sentence) {
-        List<ValidationError> result = new ArrayList<>();
+        return CharacterScanner.validate(this, sentence);
+    }
+
+    @Override
+    public String getTriggerCharacters() {
+        return "";
+    }
+
+    @Override
+    public CharacterScan startScan(Sentence sentence) {
         String content = sentence.content;
-        if (!sentence.isFirstSentence && content.length() > 0
-                && !String.valueOf(content.charAt(0)).equals(" ")) {
-            result.add(new ValidationError(
-                    this.getClass(),
-                    "Space not exist the beginning of sentence.",
-                    sentence));
+        if (sentence.isFirstSentence || content.length() == 0 || content.charAt(0) == ' ') {
+            return null;
         }
-        return result;
+        return errors -> errors.add(new ValidationError(
+                this.getClass(),
+                "Space not exist the beginning of sentence.",
+                sentence));
     }
 }
@@ -3,43 +3,69 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.CompactWordSet;
 import cc.redpen.util.ResourceLoader;
 import cc.redpen.util.WordListExtractor;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SpellingValidator extends Validator<Sentence> {
 
     private static final String DEFAULT_RESOURCE_PATH = "default-resources/spellchecker";
     private static final Logger LOG =
             LoggerFactory.getLogger(SpellingValidator.class);
-    private static Character[] skipChars =
-            new Character[]{'+', '~', '-', '(', ')', ',', '\"', '.'};
-    private static Set<Character> skipCharacters =
-            new HashSet<>(Arrays.asList(skipChars));
-    // TODO: replace more memory efficient data structure
+    private static final String SKIP_CHARACTERS = "+~-(),\".";
+    /**
+     * Loaded dictionaries keyed by their source files, shared by all the
+     * validator instances using the same files. A dictionary loaded again
+     * after its user file is modified replaces the previous one.
+     */
+    static final Map<String, LoadedDictionary> DICTIONARIES =
+            new ConcurrentHashMap<>();
     private Set<String> validWords = new HashSet<>();
 
     @Override
     protected void init() throws RedPenException {
         String lang = getSymbolTable().getLang();
+        String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
+                + "/spellchecker-" + lang + ".dat";
+        Optional<String> userDictionaryFile = getConfigAttribute("dictionary");
+
+        String key = defaultDictionaryFile + userDictionaryFile
+                .map(f -> File.pathSeparator + new File(f).getAbsolutePath())
+                .orElse("");
+        long lastModified = userDictionaryFile.map(f -> new File(f).lastModified()).orElse(0L);
+        LoadedDictionary loaded = DICTIONARIES.get(key);
+        if (loaded == null || loaded.lastModified != lastModified) {
+            Set<String> dictionary = loadDictionary(lang, defaultDictionaryFile, userDictionaryFile);
+            loaded = new LoadedDictionary(lastModified, dictionary);
+            DICTIONARIES.put(key, loaded);
+        } else {
+            LOG.info("Reusing loaded spelling dictionary for \"" + lang + "\".");
+        }
+        validWords = loaded.words;
+    }
+
+    private static Set<String> loadDictionary(String lang, String defaultDictionaryFile,
+                                              Optional<String> userDictionaryFile)
+            throws RedPenException {
         WordListExtractor extractor = new WordListExtractor();
         extractor.setToLowerCase();
         ResourceLoader loader = new ResourceLoader(extractor);
 
         LOG.info("Loading default invalid expression dictionary for " +
                 "\"" + lang + "\".");
-        String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
-                + "/spellchecker-" + lang + ".dat";
         try {
             loader.loadInternalResource(defaultDictionaryFile);
         } catch (IOException e) {
@@ -49,7 +75,6 @@ public class SpellingValidator extends Validator<Sentence> {
         }
         LOG.info("Succeeded to load default dictionary.");
 
-        Optional<String> userDictionaryFile = getConfigAttribute("dictionary");
         userDictionaryFile.ifPresent(f -> {
             LOG.info("user dictionary file is " + f);
             try {
@@ -60,15 +85,14 @@ public class SpellingValidator extends Validator<Sentence> {
             }
             LOG.info("Succeeded to load specified user dictionary.");
         });
-        validWords = extractor.get();
+        return CompactWordSet.of(extractor.get());
     }
 
     @Override
     public List<ValidationError> validate(Sentence line) {
         List<ValidationError> result = new ArrayList<>();
-        String str = normalize(line);
-        String[] words = str.split(" ");
-        for (String word : words) {
+        for (String token : line.getWords()) {
+            String word = normalize(token);
             if (word.length() == 0) {
                 continue;
             }
@@ -82,14 +106,38 @@ public class SpellingValidator extends Validator<Sentence> {
         return result;
     }
 
-    private String normalize(Sentence line) {
-        StringBuilder builder = new StringBuilder(line.content.length());
-        for (Character ch : line.content.toCharArray()) {
-            if (!skipCharacters.contains(ch)) {
-                builder.append(Character.toLowerCase(ch));
+    /**
+     * Remove the skipped characters from a word and lower its case. The
+     * word itself is returned when there is nothing to change.
+     */
+    private static String normalize(String word) {
+        StringBuilder builder = null;
+        for (int i = 0; i < word.length(); i++) {
+            char ch = word.charAt(i);
+            boolean skipped = SKIP_CHARACTERS.indexOf(ch) >= 0;
+            char lower = Character.toLowerCase(ch);
+            if (builder == null && (skipped || lower != ch)) {
+                builder = new StringBuilder(word.length()).append(word, 0, i);
+            }
+            if (builder != null && !skipped) {
+                builder.append(lower);
             }
         }
-        return builder.toString();
+        return builder == null ? word : builder.toString();
+    }
+
+    /**
+     * Dictionary with the modification time of the user file it was loaded
+     * from, 0 when there is none.
+     */
+    static final class LoadedDictionary {
+        final long lastModified;
+        final Set<String> words;
+
+        LoadedDictionary(long lastModified, Set<String> words) {
+            this.lastModified = lastModified;
+            this.words = words;
+        }
     }
 
     /**
@@ -98,6 +146,10 @@ public class SpellingValidator extends Validator<Sentence> {
      * @param word word to register a repelling dictionary
      */
     public void addWord(String word) {
+        if (!(validWords instanceof HashSet)) {
+            // the loaded dictionary is immutable and shared, copy it first
+            validWords = new HashSet<>(validWords);
+        }
         validWords.add(word);
     }
 }
@@ -33,9 +33,9 @@ public class StartWithCapitalLetterValidator extends Validator<Sentence> {
     public List<ValidationError> validate(Sentence block) {
         List<ValidationError> results = new ArrayList<>();
         String content = block.content;
-        String[] words = content.split(" ");
+        List<String> words = block.getWords();
 
-        if (this.whiteList.contains(words[0])) {
+        if (!words.isEmpty() && this.whiteList.contains(words.get(0))) {
             return results;
         }
 
@@ -20,6 +20,7 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.AhoCorasickMatcher;
 import cc.redpen.util.FileLoader;
 import cc.redpen.util.KeyValueDictionaryExtractor;
 import cc.redpen.validator.Validator;
@@ -32,7 +33,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * If input sentences contain invalid expressions, this validator
@@ -43,20 +43,17 @@ public class SuggestExpressionValidator extends Validator<Sentence> {
     private static final Logger LOG =
             LoggerFactory.getLogger(SuggestExpressionValidator.class);
     private Map<String, String> synonyms = new HashMap<>();
+    private AhoCorasickMatcher matcher = new AhoCorasickMatcher(synonyms.keySet());
 
     public List<ValidationError> validate(Sentence line) {
         List<ValidationError> result = new ArrayList<>();
-        String str = line.content;
-        Set<String> invalidWords = synonyms.keySet();
-        for (String w : invalidWords) {
-            if (str.contains(w)) {
-                result.add(new ValidationError(
-                        this.getClass(),
-                        "Found invalid word, \"" + w + "\". "
-                                + "Use the synonym of the word \""
-                                + synonyms.get(w) + "\" instead.", line
-                ));
-            }
+        for (String w : matcher.findPatterns(line.content).keySet()) {
+            result.add(new ValidationError(
+                    this.getClass(),
+                    "Found invalid word, \"" + w + "\". "
+                            + "Use the synonym of the word \""
+                            + synonyms.get(w) + "\" instead.", line
+            ));
         }
         return result;
     }
@@ -77,10 +74,12 @@ public class SuggestExpressionValidator extends Validator<Sentence> {
                 throw new RedPenException("Failed to load KeyValueDictionaryExtractor", e);
             }
             synonyms = extractor.get();
+            matcher = new AhoCorasickMatcher(synonyms.keySet());
         }
     }
 
     protected void setSynonyms(Map<String, String> synonymMap) {
         this.synonyms = synonymMap;
+        this.matcher = new AhoCorasickMatcher(synonymMap.keySet());
     }
 }
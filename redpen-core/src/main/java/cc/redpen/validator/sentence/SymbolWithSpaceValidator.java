@@ -17,59 +17,93 @@
  */
 package cc.redpen.validator.sentence;
 
+import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
 import cc.redpen.config.Symbol;
+import cc.redpen.config.SymbolLookup;
 import cc.redpen.model.Sentence;
+import cc.redpen.validator.CharacterScanner;
+import cc.redpen.validator.CharacterValidator;
 import cc.redpen.validator.Validator;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Validate symbol has before and after symbols. Needed spaces is depend on
  * the symbol and defined in DVCharacterTable.
  */
-public class SymbolWithSpaceValidator extends Validator<Sentence> {
+public class SymbolWithSpaceValidator extends Validator<Sentence>
+        implements CharacterValidator {
+    /* symbols needing a space before or after them */
+    private SymbolLookup spacedSymbols = SymbolLookup.EMPTY;
 
     public List<ValidationError> validate(Sentence sentence) {
-        List<ValidationError> errors = new ArrayList<>();
-        Set<String> names = getSymbolTable().getNames();
-        for (String name : names) {
-            ValidationError error = validateSymbol(sentence, name);
-            if (error != null) {
-                errors.add(error);
-            }
-        }
-        return errors;
+        return CharacterScanner.validate(this, sentence);
     }
 
-    private ValidationError validateSymbol(Sentence sentence, String name) {
-        String sentenceStr = sentence.content;
-        Symbol symbol = getSymbolTable().getSymbol(name);
-        if (!symbol.isNeedAfterSpace() && !symbol.isNeedBeforeSpace()) {
-            return null;
+    @Override
+    protected void init() throws RedPenException {
+        spacedSymbols = SymbolLookup.ofValues(getSymbolTable(),
+                symbol -> symbol.isNeedAfterSpace() || symbol.isNeedBeforeSpace());
+    }
+
+    @Override
+    public String getTriggerCharacters() {
+        return spacedSymbols.getFirstCharacters();
+    }
+
+    @Override
+    public CharacterScan startScan(Sentence sentence) {
+        return new SymbolScan(sentence);
+    }
+
+    /**
+     * Checks the spaces around each occurrence of the symbols in a sentence.
+     */
+    private final class SymbolScan implements CharacterScan {
+        private final Sentence sentence;
+        private final List<ValidationError> errors = new ArrayList<>();
+
+        SymbolScan(Sentence sentence) {
+            this.sentence = sentence;
         }
 
-        String target = symbol.getValue();
-        int position = sentenceStr.indexOf(target);
-        if (position != -1) {
-            if (position > 0 && symbol.isNeedBeforeSpace()
-                    && !Character.isWhitespace(sentenceStr.charAt(position - 1))) {
-                return new ValidationError(
-                        this.getClass(),
-                        "Need white space before symbol (" + symbol.getName()
-                                + "): " + sentenceStr.charAt(position) + ".",
-                        sentence);
-            } else if (position < sentenceStr.length() - 1
-                    && symbol.isNeedAfterSpace()
-                    && !Character.isWhitespace(sentenceStr.charAt(position + 1))) {
-                return new ValidationError(
-                        this.getClass(),
-                        "Need white space after symbol (" + symbol.getName()
-                                + "): " + sentenceStr.charAt(position), sentence);
+        @Override
+        public void accept(int index, char ch) {
+            for (SymbolLookup.Entry entry : spacedSymbols.get(ch)) {
+                if (sentence.content.startsWith(entry.getText(), index)) {
+                    ValidationError error = validateSymbol(sentence, entry.getSymbol(), index);
+                    if (error != null) {
+                        errors.add(error);
+                    }
+                }
             }
         }
+
+        @Override
+        public void finish(List<ValidationError> errors) {
+            errors.addAll(this.errors);
+        }
+    }
+
+    private ValidationError validateSymbol(Sentence sentence, Symbol symbol, int position) {
+        String sentenceStr = sentence.content;
+        if (position > 0 && symbol.isNeedBeforeSpace()
+                && !Character.isWhitespace(sentenceStr.charAt(position - 1))) {
+            return new ValidationError(
+                    this.getClass(),
+                    "Need white space before symbol (" + symbol.getName()
+                            + "): " + sentenceStr.charAt(position) + ".",
+                    sentence);
+        } else if (position < sentenceStr.length() - 1
+                && symbol.isNeedAfterSpace()
+                && !Character.isWhitespace(sentenceStr.charAt(position + 1))) {
+            return new ValidationError(
+                    this.getClass(),
+                    "Need white space after symbol (" + symbol.getName()
+                            + "): " + sentenceStr.charAt(position), sentence);
+        }
         return null;
     }
 }
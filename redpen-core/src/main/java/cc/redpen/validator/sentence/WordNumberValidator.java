@@ -43,9 +43,7 @@ public class WordNumberValidator extends Validator<Sentence> {
     @Override
     public List<ValidationError> validate(Sentence sentence) {
         List<ValidationError> result = new ArrayList<>();
-        String content = sentence.content;
-        String[] wordList = content.split(" ");
-        int wordNum = wordList.length;
+        int wordNum = sentence.getWords().size();
         if (wordNum > maxWordNumber) {
             result.add(new ValidationError(
                     this.getClass(),
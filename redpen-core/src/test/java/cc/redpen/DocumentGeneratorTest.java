@@ -0,0 +1,102 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Section;
+import cc.redpen.parser.Parser;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+public class DocumentGeneratorTest {
+
+    private static String[] createInputFiles(int count) throws IOException {
+        String[] fileNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            File file = File.createTempFile("redpen-input" + i + "-", ".md");
+            file.deleteOnExit();
+            StringBuilder content = new StringBuilder("# File " + i + "\n");
+            for (int j = 0; j <= i % 4; j++) {
+                content.append("## Section ").append(j).append("\n")
+                        .append("This is sentence ").append(i).append(". It has more.\n\n");
+            }
+            Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+            fileNames[i] = file.getPath();
+        }
+        return fileNames;
+    }
+
+    @Test
+    public void testParallelGenerateKeepsInputOrder() throws RedPenException, IOException {
+        String[] fileNames = createInputFiles(12);
+        Configuration configuration = new Configuration.Builder().build();
+
+        DocumentCollection expected =
+                DocumentGenerator.generate(fileNames, configuration, Parser.Type.MARKDOWN);
+        DocumentCollection actual =
+                DocumentGenerator.generate(fileNames, configuration, Parser.Type.MARKDOWN, 4);
+
+        assertEquals(fileNames.length, actual.getNumberOfDocuments());
+        for (int i = 0; i < fileNames.length; i++) {
+            Document expectedDocument = expected.getFile(i);
+            Document actualDocument = actual.getFile(i);
+            assertEquals(fileNames[i], actualDocument.getFileName());
+            assertEquals(expectedDocument.getNumberOfSections(), actualDocument.getNumberOfSections());
+            for (int j = 0; j < expectedDocument.getNumberOfSections(); j++) {
+                Section expectedSection = expectedDocument.getSection(j);
+                Section actualSection = actualDocument.getSection(j);
+                assertEquals(expectedSection.getJoinedHeaderContents().content,
+                        actualSection.getJoinedHeaderContents().content);
+                assertEquals(expectedSection.getNumberOfParagraphs(),
+                        actualSection.getNumberOfParagraphs());
+            }
+        }
+    }
+
+    @Test
+    public void testParserMetrics() throws RedPenException, IOException {
+        String[] fileNames = createInputFiles(3);
+        Metrics metrics = new Metrics();
+        DocumentGenerator.generate(fileNames, new Configuration.Builder().build(),
+                Parser.Type.MARKDOWN, 2, metrics);
+        assertEquals(3, metrics.getTimer(Metrics.PARSER, "MarkdownParser").getCount());
+    }
+
+    @Test(expected = RedPenException.class)
+    public void testParallelGenerateWithMissingFile() throws RedPenException, IOException {
+        String[] fileNames = createInputFiles(3);
+        fileNames[1] = fileNames[1] + ".missing";
+        DocumentGenerator.generate(fileNames, new Configuration.Builder().build(),
+                Parser.Type.PLAIN, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreadCount() throws RedPenException, IOException {
+        DocumentGenerator.generate(createInputFiles(1), new Configuration.Builder().build(),
+                Parser.Type.PLAIN, 0);
+    }
+}
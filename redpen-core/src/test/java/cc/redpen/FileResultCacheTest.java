@@ -0,0 +1,87 @@
+package cc.redpen;
+
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.Parser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class FileResultCacheTest {
+    private File directory;
+    private File input;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("redpen-cache").toFile();
+        directory.deleteOnExit();
+        input = File.createTempFile("redpen-input", ".md");
+        input.deleteOnExit();
+        write(input, "This is a sentence.\n");
+    }
+
+    @Test
+    public void testRestoreErrors() throws RedPenException {
+        FileResultCache cache = new FileResultCache(directory, "fingerprint", Parser.Type.MARKDOWN);
+        assertNull(cache.get(input.getPath()));
+        cache.put(input.getPath(), Arrays.asList(
+                new ValidationError(FileResultCacheTest.class, "error 日本",
+                        new Sentence("This is a sentence.", 1)),
+                new ValidationError(FileResultCacheTest.class, "section error", 3)));
+
+        List<ValidationError> errors = new FileResultCache(directory, "fingerprint",
+                Parser.Type.MARKDOWN).get(input.getPath());
+        assertEquals(2, errors.size());
+        assertEquals("FileResultCacheTest", errors.get(0).getValidatorName());
+        assertEquals("error 日本", errors.get(0).getMessage());
+        assertEquals(1, errors.get(0).getLineNumber());
+        assertEquals("This is a sentence.", errors.get(0).getSentence().get().content);
+        assertEquals(input.getPath(), errors.get(0).getFileName().get());
+        assertEquals("section error", errors.get(1).getMessage());
+        assertEquals(3, errors.get(1).getLineNumber());
+        assertFalse(errors.get(1).getSentence().isPresent());
+    }
+
+    @Test
+    public void testMissWhenInputOrConfigurationChanges() throws Exception {
+        FileResultCache cache = new FileResultCache(directory, "fingerprint", Parser.Type.MARKDOWN);
+        assertNull(cache.get(input.getPath()));
+        cache.put(input.getPath(), Collections.emptyList());
+        assertEquals(0, cache.get(input.getPath()).size());
+
+        assertNull(new FileResultCache(directory, "other", Parser.Type.MARKDOWN).get(input.getPath()));
+        assertNull(new FileResultCache(directory, "fingerprint", Parser.Type.PLAIN).get(input.getPath()));
+        write(input, "This is another sentence.\n");
+        assertNull(cache.get(input.getPath()));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testIgnoreCorruptEntry() throws Exception {
+        FileResultCache cache = new FileResultCache(directory, "fingerprint", Parser.Type.MARKDOWN);
+        assertNull(cache.get(input.getPath()));
+        cache.put(input.getPath(), Collections.singletonList(
+                new ValidationError(FileResultCacheTest.class, "error", 1)));
+        File[] entries = directory.listFiles();
+        assertEquals(1, entries.length);
+        byte[] content = Files.readAllBytes(entries[0].toPath());
+        Files.write(entries[0].toPath(), Arrays.copyOf(content, content.length - 3));
+
+        assertNull(cache.get(input.getPath()));
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -20,14 +20,32 @@ package cc.redpen;
 import cc.redpen.config.Configuration;
 import cc.redpen.config.ValidatorConfiguration;
 import cc.redpen.distributor.FakeResultDistributor;
+import cc.redpen.metrics.HitCounter;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.Timer;
 import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.StreamingDocumentBuilder;
+import cc.redpen.parser.Parser;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.matchers.JUnitMatchers.containsString;
 
 public class RedPenTest {
@@ -174,6 +192,503 @@ public class RedPenTest {
 
     }
 
+    @Test
+    public void testParallelValidationKeepsDocumentOrder() throws RedPenException {
+        DocumentCollection.Builder builder = new DocumentCollection.Builder();
+        for (int i = 0; i < 20; i++) {
+            builder.addDocument("file" + i)
+                    .addSection(0)
+                    .addParagraph()
+                    .addSentence("it is a piece of a cake.", 0)
+                    .addSentence("that is also a piece of a cake.", 1);
+        }
+        DocumentCollection documents = builder.build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "5"))
+                .build();
+        List<ValidationError> expected = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build().check(documents);
+        List<ValidationError> errors = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setThreadCount(4)
+                .build().check(documents);
+
+        assertEquals(40, errors.size());
+        assertEquals(expected, errors);
+    }
+
+    @Test
+    public void testParallelValidationWithStatefulValidator() throws RedPenException {
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("first file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("フレーズ・アナライズにバグがある", 0)
+                .addDocument("second file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("バグのあるフェーズ・アナライシス", 0)
+                .build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .setSymbolTable("ja")
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setThreadCount(2)
+                .build();
+
+        List<ValidationError> errors = redPen.check(documents);
+        assertEquals(1, errors.size());
+        assertEquals("second file", errors.get(0).getFileName().get());
+    }
+
+    @Test
+    public void testPreprocessingCoversWholeCollection() throws RedPenException {
+        // the non-contractions in the later document decide the result of the first one
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("first file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("he's a super man.", 0)
+                .addDocument("second file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("he is a business man.", 0)
+                .addSentence("he is not a bat man.", 1)
+                .build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("Contraction"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SectionLength").addAttribute("max_char_num", "5"))
+                .build();
+
+        for (int threadCount : new int[]{1, 3}) {
+            List<ValidationError> errors = new RedPen.Builder()
+                    .setConfiguration(configuration)
+                    .setResultDistributor(new FakeResultDistributor())
+                    .setThreadCount(threadCount)
+                    .build().check(documents);
+            assertEquals(3, errors.size());
+            int contractionErrors = 0;
+            for (ValidationError error : errors) {
+                if (error.getValidatorName().equals("Contraction")) {
+                    assertEquals("first file", error.getFileName().get());
+                    contractionErrors++;
+                }
+            }
+            assertEquals(1, contractionErrors);
+        }
+    }
+
+    @Test
+    public void testErrorOrderDoesNotDependOnThreadCount() throws RedPenException {
+        DocumentCollection.Builder builder = new DocumentCollection.Builder();
+        for (int i = 0; i < 3; i++) {
+            builder.addDocument("file" + i)
+                    .addSection(0)
+                    .addParagraph()
+                    .addSentence("he's a super man with a フレーズ・アナライズ.", 0)
+                    .addSentence("he is a business man.", 1)
+                    .addSection(1)
+                    .addParagraph()
+                    .addSentence("he is not a bat man with a フェーズ・アナライシス.", 2);
+        }
+        DocumentCollection documents = builder.build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("Contraction"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "5"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SectionLength").addAttribute("max_char_num", "5"))
+                .addValidatorConfig(new ValidatorConfiguration("StartWithCapitalLetter"))
+                .build();
+        List<String> expected = describeErrors(new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build().check(documents));
+
+        Set<String> validatorNames = new HashSet<>();
+        for (String error : expected) {
+            validatorNames.add(error.split(":")[2]);
+        }
+        assertEquals(5, validatorNames.size());
+
+        for (int threadCount : new int[]{2, 4}) {
+            List<String> errors = describeErrors(new RedPen.Builder()
+                    .setConfiguration(configuration)
+                    .setResultDistributor(new FakeResultDistributor())
+                    .setThreadCount(threadCount)
+                    .build().check(documents));
+            assertEquals(expected, errors);
+        }
+    }
+
+    // section validators report a new sentence object in every run, so compare what is printed
+    private static List<String> describeErrors(List<ValidationError> errors) {
+        List<String> descriptions = new ArrayList<>();
+        for (ValidationError error : errors) {
+            descriptions.add(error.getFileName().orElse("") + ":" + error.getLineNumber() + ":"
+                    + error.getValidatorName() + ":" + error.getMessage());
+        }
+        return descriptions;
+    }
+
+    @Test
+    public void testStreamingCheckWithPreprocessing() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("Contraction"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SectionLength").addAttribute("max_char_num", "5"))
+                .build();
+        int[] produced = new int[1];
+        List<ValidationError> errors = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build().checkStreaming(consumer -> {
+                    produced[0]++;
+                    StreamingDocumentBuilder builder = new StreamingDocumentBuilder(consumer);
+                    builder.addDocument("first file")
+                            .addSection(0)
+                            .addParagraph()
+                            .addSentence("he's a super man.", 0)
+                            .addDocument("second file")
+                            .addSection(0)
+                            .addParagraph()
+                            .addSentence("he is a business man.", 0)
+                            .addSentence("he is not a bat man.", 1);
+                    builder.flush();
+                });
+
+        // preprocessing needs its own pass over the input
+        assertEquals(2, produced[0]);
+        assertEquals(3, errors.size());
+        int contractionErrors = 0;
+        for (ValidationError error : errors) {
+            if (error.getValidatorName().equals("Contraction")) {
+                assertEquals("first file", error.getFileName().get());
+                contractionErrors++;
+            }
+        }
+        assertEquals(1, contractionErrors);
+    }
+
+    @Test
+    public void testStreamingCheckAgreesWithCheck() throws RedPenException, IOException {
+        File first = File.createTempFile("redpen-first", ".md");
+        File second = File.createTempFile("redpen-second", ".md");
+        first.deleteOnExit();
+        second.deleteOnExit();
+        Files.write(first.toPath(), ("# Header\nThis is a long sentence. Short.\n\n"
+                + "## Sub header\nAnother long sentence here.\n").getBytes(StandardCharsets.UTF_8));
+        Files.write(second.toPath(), ("Second file has a long sentence.\n\n"
+                + "* list item is long enough\n").getBytes(StandardCharsets.UTF_8));
+        String[] fileNames = {first.getPath(), second.getPath()};
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "10"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SectionLength").addAttribute("max_char_num", "20"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+
+        List<ValidationError> expected = redPen.check(DocumentGenerator.generate(
+                fileNames, configuration, Parser.Type.MARKDOWN));
+        List<ValidationError> actual = redPen.checkStreaming(consumer -> DocumentGenerator.generate(
+                fileNames, configuration, Parser.Type.MARKDOWN, consumer));
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getMessage(), actual.get(i).getMessage());
+            assertEquals(expected.get(i).getFileName(), actual.get(i).getFileName());
+            assertEquals(expected.get(i).getLineNumber(), actual.get(i).getLineNumber());
+        }
+    }
+
+    @Test
+    public void testRepeatedChecksAreIndependent() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("Contraction"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+
+        redPen.check(new DocumentCollection.Builder()
+                .addDocument("first")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("he is a man. it is good.", 0)
+                .addSentence("フレーズ・アナライズにバグがある", 1)
+                .build());
+        List<ValidationError> errors = redPen.check(new DocumentCollection.Builder()
+                .addDocument("second")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("he's a man.", 0)
+                .addSentence("バグのあるフェーズ・アナライシス", 1)
+                .build());
+
+        // neither the contraction counts nor the katakana words of the first check are used
+        assertEquals(0, errors.size());
+    }
+
+    @Test
+    public void testConcurrentChecks() throws Exception {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("Contraction"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "20"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<ValidationError>>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String fileName = "file" + i;
+                results.add(executor.submit(() -> redPen.check(new DocumentCollection.Builder()
+                        .addDocument(fileName)
+                        .addSection(0)
+                        .addParagraph()
+                        .addSentence("he's a super man and he is not a bat man.", 0)
+                        .addSentence("フレーズ・アナライズにバグがある", 1)
+                        .addSentence("バグのあるフェーズ・アナライシス", 2)
+                        .build())));
+            }
+            for (Future<List<ValidationError>> result : results) {
+                List<ValidationError> errors = result.get();
+                // SentenceLength, Contraction and KatakanaSpellCheck once each
+                assertEquals(3, errors.size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testValidatorMetrics() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "10"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SectionLength").addAttribute("max_char_num", "1000"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setMetrics(new Metrics())
+                .build();
+        redPen.check(new DocumentCollection.Builder()
+                .addDocument("tested file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("this is a very long sentence.", 0)
+                .addSentence("short.", 1)
+                .build());
+
+        // the character validators such as SentenceLength are timed together
+        Timer scan = redPen.getMetrics().getTimer(Metrics.VALIDATOR, RedPen.CHARACTER_SCAN);
+        assertEquals(2, scan.getCount());
+        assertEquals(1, scan.getErrorCount());
+        Timer sectionLength = redPen.getMetrics().getTimer(Metrics.VALIDATOR, "SectionLength");
+        assertEquals(1, sectionLength.getCount());
+        assertEquals(0, sectionLength.getErrorCount());
+    }
+
+    @Test
+    public void testSentenceCache() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "10"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .setSymbolTable("en")
+                .build();
+        SentenceResultCache cache = new SentenceResultCache(1000);
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setSentenceCache(cache)
+                .setMetrics(new Metrics())
+                .build();
+        redPen.check(new DocumentCollection.Builder()
+                .addDocument("tested file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("short.", 0)
+                .addSentence("this is a very long sentence.", 1)
+                .build());
+
+        // a sentence is inserted, moving the long sentence to the next line
+        DocumentCollection edited = new DocumentCollection.Builder()
+                .addDocument("tested file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("short.", 0)
+                .addSentence("inserted.", 1)
+                .addSentence("this is a very long sentence.", 2)
+                .build();
+        List<ValidationError> errors = redPen.check(edited);
+
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.get(0).getLineNumber());
+        assertTrue(errors.get(0).getSentence().get()
+                == edited.getFile(0).getLastSection().getParagraph(0).getSentence(2));
+        assertEquals("tested file", errors.get(0).getFileName().get());
+        // only the new sentence is validated again
+        assertEquals(3, redPen.getMetrics().getTimer(Metrics.VALIDATOR, RedPen.CHARACTER_SCAN).getCount());
+        assertEquals(2, cache.getHitCount());
+        // stateful validators see every sentence
+        assertEquals(5, redPen.getMetrics().getTimer(Metrics.VALIDATOR, "KatakanaSpellCheck").getCount());
+    }
+
+    @Test
+    public void testSentenceDeduplication() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "10"))
+                .addValidatorConfig(new ValidatorConfiguration("Spelling"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .setSymbolTable("en")
+                .build();
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("first file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("this is a helo sentence.", 0)
+                .addSentence("short.", 1)
+                .addSentence("this is a helo sentence.", 2)
+                .addDocument("second file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("this is a helo sentence.", 5)
+                .build();
+        for (int threadCount = 1; threadCount <= 2; threadCount++) {
+            RedPen redPen = new RedPen.Builder()
+                    .setConfiguration(configuration)
+                    .setResultDistributor(new FakeResultDistributor())
+                    .setThreadCount(threadCount)
+                    .setSentenceDeduplication(true)
+                    .setMetrics(new Metrics())
+                    .build();
+            List<ValidationError> errors = redPen.check(documents);
+
+            // every repetition is reported with its own file and line
+            assertEquals(6, errors.size());
+            List<String> locations = new ArrayList<>();
+            for (ValidationError error : errors) {
+                locations.add(error.getFileName().get() + ":" + error.getLineNumber());
+            }
+            assertTrue(locations.contains("first file:0"));
+            assertTrue(locations.contains("first file:2"));
+            assertTrue(locations.contains("second file:5"));
+            // the repetition inside the paragraph is not a first sentence, so it is validated again
+            assertEquals(3, redPen.getMetrics().getTimer(Metrics.VALIDATOR, RedPen.CHARACTER_SCAN).getCount());
+            assertEquals(3, redPen.getMetrics().getTimer(Metrics.VALIDATOR, "Spelling").getCount());
+            assertEquals(4, redPen.getMetrics().getTimer(Metrics.VALIDATOR, "KatakanaSpellCheck").getCount());
+            HitCounter counter = redPen.getMetrics().getHitCounter(RedPen.SENTENCE_DEDUPLICATION);
+            assertEquals(2, counter.getHitCount());
+            assertEquals(6, counter.getMissCount());
+
+            // the repeated sentences are not kept over checks
+            redPen.check(documents);
+            assertEquals(6, redPen.getMetrics().getTimer(Metrics.VALIDATOR, RedPen.CHARACTER_SCAN).getCount());
+            assertEquals(4, counter.getHitCount());
+        }
+    }
+
+    @Test
+    public void testNoDeduplicationByDefault() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_length", "5"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setMetrics(new Metrics())
+                .build();
+        redPen.check(new DocumentCollection.Builder()
+                .addDocument("tested file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("this is a sentence.", 0)
+                .addSentence("this is a sentence.", 0)
+                .build());
+        assertEquals(2, redPen.getMetrics().getTimer(Metrics.VALIDATOR, RedPen.CHARACTER_SCAN).getCount());
+        assertTrue(redPen.getMetrics().getHitCounters().isEmpty());
+    }
+
+    @Test
+    public void testNoTimingByDefault() throws RedPenException {
+        RedPen redPen = getValidaorWithSentenceValidator();
+        List<ValidationError> errors = redPen.check(new DocumentCollection.Builder()
+                .addDocument("tested file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("this is a sentence.", 0)
+                .build());
+        assertEquals(1, errors.size());
+        assertFalse(redPen.getMetrics().isTiming());
+        assertTrue(redPen.getMetrics().getTimers().isEmpty());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testCloseStopsParallelValidation() throws RedPenException {
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(new Configuration.Builder()
+                        .addValidatorConfig(new ValidatorConfiguration("SentenceLength"))
+                        .build())
+                .setResultDistributor(new FakeResultDistributor())
+                .setThreadCount(2)
+                .build();
+        redPen.close();
+        redPen.check(new DocumentCollection.Builder()
+                .addDocument("tested file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("this is a sentence.", 0)
+                .build());
+    }
+
+    @Test
+    public void testCloseSingleThreaded() throws RedPenException {
+        RedPen redPen = getValidaorWithSentenceValidator();
+        redPen.close();
+        assertEquals(1, redPen.check(new DocumentCollection.Builder()
+                .addDocument("tested file")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("this is a sentence.", 0)
+                .build()).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreadCount() throws RedPenException {
+        new RedPen.Builder().setThreadCount(0);
+    }
+
     private RedPen getValidaorWithSentenceValidator() throws
             RedPenException {
 
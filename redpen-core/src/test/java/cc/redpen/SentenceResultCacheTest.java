@@ -0,0 +1,61 @@
+package cc.redpen;
+
+import cc.redpen.model.Sentence;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SentenceResultCacheTest {
+
+    @Test
+    public void testErrorsMoveToNewSentence() {
+        SentenceResultCache cache = new SentenceResultCache(10);
+        Sentence original = new Sentence("This is a sentence.", 3);
+        cache.put("validator", original, Collections.singletonList(
+                new ValidationError(SentenceResultCacheTest.class, "error", original)));
+
+        Sentence moved = new Sentence("This is a sentence.", 10);
+        List<ValidationError> errors = cache.get("validator", moved);
+        assertEquals(1, errors.size());
+        assertEquals(10, errors.get(0).getLineNumber());
+        assertTrue(errors.get(0).getSentence().get() == moved);
+        assertEquals("error", errors.get(0).getMessage());
+        assertEquals("SentenceResultCacheTest", errors.get(0).getValidatorName());
+    }
+
+    @Test
+    public void testKeyCoversValidatorAndSentenceAttributes() {
+        SentenceResultCache cache = new SentenceResultCache(10);
+        Sentence sentence = new Sentence("This is a sentence.", 0);
+        cache.put("validator", sentence, Collections.emptyList());
+
+        assertNull(cache.get("other validator", sentence));
+        Sentence first = new Sentence("This is a sentence.", 0);
+        first.isFirstSentence = true;
+        assertNull(cache.get("validator", first));
+        Sentence withLink = new Sentence("This is a sentence.", 0);
+        withLink.links.add("http://example.com");
+        assertNull(cache.get("validator", withLink));
+        assertEquals(0, cache.get("validator", new Sentence("This is a sentence.", 5)).size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        SentenceResultCache cache = new SentenceResultCache(2);
+        cache.put("validator", new Sentence("first.", 0), Collections.emptyList());
+        cache.put("validator", new Sentence("second.", 1), Collections.emptyList());
+        cache.get("validator", new Sentence("first.", 0));
+        cache.put("validator", new Sentence("third.", 2), Collections.emptyList());
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("validator", new Sentence("second.", 1)));
+        assertEquals(0, cache.get("validator", new Sentence("first.", 0)).size());
+    }
+}
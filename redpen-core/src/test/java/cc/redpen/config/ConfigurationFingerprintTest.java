@@ -0,0 +1,68 @@
+package cc.redpen.config;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ConfigurationFingerprintTest {
+
+    @Test
+    public void testSameConfigurationHasSameFingerprint() {
+        assertEquals(ConfigurationFingerprint.of(createConfiguration("120")),
+                ConfigurationFingerprint.of(createConfiguration("120")));
+    }
+
+    @Test
+    public void testAttributeChangesFingerprint() {
+        String fingerprint = ConfigurationFingerprint.of(createConfiguration("120"));
+        assertFalse(fingerprint.equals(ConfigurationFingerprint.of(createConfiguration("100"))));
+    }
+
+    @Test
+    public void testSymbolChangesFingerprint() {
+        Configuration changed = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength")
+                        .addAttribute("max_length", "120"))
+                .setSymbolTable("en")
+                .setSymbol(new Symbol("COMMA", "、"))
+                .build();
+        String fingerprint = ConfigurationFingerprint.of(createConfiguration("120"));
+        assertFalse(fingerprint.equals(ConfigurationFingerprint.of(changed)));
+    }
+
+    @Test
+    public void testDictionaryChangesFingerprint() throws IOException {
+        File dictionary = File.createTempFile("redpen-dictionary", ".txt");
+        dictionary.deleteOnExit();
+        write(dictionary, "foo\n");
+        ValidatorConfiguration validatorConfiguration = new ValidatorConfiguration("Spelling")
+                .addAttribute("dictionary", dictionary.getPath());
+        SymbolTable symbolTable = new Configuration.Builder().setSymbolTable("en").build()
+                .getSymbolTable();
+        String before = ConfigurationFingerprint.of(validatorConfiguration, symbolTable);
+
+        write(dictionary, "foo\nbar\n");
+        assertFalse(before.equals(ConfigurationFingerprint.of(validatorConfiguration, symbolTable)));
+    }
+
+    private static Configuration createConfiguration(String maxLength) {
+        return new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength")
+                        .addAttribute("max_length", maxLength))
+                .addValidatorConfig(new ValidatorConfiguration("InvalidExpression"))
+                .setSymbolTable("en")
+                .build();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
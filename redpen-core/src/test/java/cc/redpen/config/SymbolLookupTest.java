@@ -0,0 +1,41 @@
+package cc.redpen.config;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SymbolLookupTest {
+
+    @Test
+    public void testLookupValues() {
+        SymbolTable table = new SymbolTable();
+        table.override(new Symbol("COLON", ":", "", false, true));
+        table.override(new Symbol("LEFT_PARENTHESIS", "（", "", true, false));
+        table.override(new Symbol("SLASH", "/"));
+        SymbolLookup lookup = SymbolLookup.ofValues(table,
+                symbol -> symbol.isNeedBeforeSpace() || symbol.isNeedAfterSpace());
+
+        assertEquals(1, lookup.get(':').length);
+        assertEquals("COLON", lookup.get(':')[0].getSymbol().getName());
+        assertEquals("LEFT_PARENTHESIS", lookup.get('（')[0].getSymbol().getName());
+        assertEquals(0, lookup.get('/').length);
+        assertEquals(0, lookup.get((char) ('（' + 1)).length);
+        assertEquals(2, lookup.getFirstCharacters().length());
+    }
+
+    @Test
+    public void testLookupInvalidSymbols() {
+        SymbolTable table = new SymbolTable();
+        table.override(new Symbol("COMMA", ",", "、，"));
+        table.override(new Symbol("IDEOGRAPHIC_COMMA", "、", ","));
+        SymbolLookup lookup = SymbolLookup.ofInvalidSymbols(table);
+
+        assertEquals("COMMA", lookup.get('，')[0].getSymbol().getName());
+        assertEquals("，", lookup.get('，')[0].getText());
+        assertEquals(1, lookup.get('、').length);
+        assertEquals(1, lookup.get(',').length);
+        assertEquals(0, lookup.get('x').length);
+        assertTrue(SymbolLookup.EMPTY.getFirstCharacters().isEmpty());
+    }
+}
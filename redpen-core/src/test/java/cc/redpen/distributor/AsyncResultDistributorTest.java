@@ -0,0 +1,129 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.distributor;
+
+import cc.redpen.ValidationError;
+import cc.redpen.formatter.XMLFormatter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AsyncResultDistributorTest {
+
+    private static void distribute(ResultDistributor distributor, int errors) {
+        distributor.flushHeader();
+        for (int i = 0; i < errors; i++) {
+            distributor.flushResult(new ValidationError(AsyncResultDistributorTest.class, "error " + i, i));
+        }
+        distributor.flushFooter();
+    }
+
+    @Test
+    public void testSameOutputAsDefaultDistributor() throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ResultDistributor defaultDistributor = new DefaultResultDistributor(expected);
+        defaultDistributor.setFormatter(new XMLFormatter());
+        distribute(defaultDistributor, 5000);
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        try (ResultDistributor asyncDistributor = new AsyncResultDistributor(actual, 100, 2)) {
+            asyncDistributor.setFormatter(new XMLFormatter());
+            distribute(asyncDistributor, 5000);
+        }
+
+        assertEquals(new String(expected.toByteArray(), StandardCharsets.UTF_8),
+                new String(actual.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFlushResultsFromManyThreads() throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (ResultDistributor distributor = new AsyncResultDistributor(os, 64, 1)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                threads.add(new Thread(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        distributor.flushResult(new ValidationError(AsyncResultDistributorTest.class, "error", j));
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            distributor.flushFooter();
+        }
+
+        String result = new String(os.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(4000, result.split(System.lineSeparator()).length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteErrorIsReportedByFooter() {
+        try (ResultDistributor distributor = new AsyncResultDistributor(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        }, 16, 1)) {
+            distribute(distributor, 100);
+        }
+    }
+
+    @Test
+    public void testCloseWritesPendingResults() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ResultDistributor distributor = new AsyncResultDistributor(os, 16, 1);
+        for (int i = 0; i < 100; i++) {
+            distributor.flushResult(new ValidationError(AsyncResultDistributorTest.class, "error", i));
+        }
+        distributor.close();
+        distributor.close();
+
+        String result = new String(os.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(100, result.split(System.lineSeparator()).length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFlushFooterAfterClose() {
+        ResultDistributor distributor = new AsyncResultDistributor(new ByteArrayOutputStream());
+        distributor.close();
+        distributor.flushFooter();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFlushNullError() {
+        try (ResultDistributor distributor = new AsyncResultDistributor(new ByteArrayOutputStream())) {
+            distributor.flushResult(null);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullStream() {
+        new AsyncResultDistributor(null);
+    }
+}
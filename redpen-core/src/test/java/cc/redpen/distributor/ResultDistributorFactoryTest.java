@@ -22,6 +22,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class ResultDistributorFactoryTest {
 
@@ -39,6 +40,14 @@ public class ResultDistributorFactoryTest {
         assertNotNull(distributor);
     }
 
+    @Test
+    public void testCreateAsyncDistributor() {
+        try (ResultDistributor distributor = ResultDistributorFactory.createDistributor(
+                Formatter.Type.XML, System.out, true)) {
+            assertTrue(distributor instanceof AsyncResultDistributor);
+        }
+    }
+
     @Test
     public void testNullDistributor() {
         ResultDistributor distributor = ResultDistributorFactory.createDistributor(null, null);
@@ -0,0 +1,65 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HitCounterTest {
+
+    @Test
+    public void testHitRate() {
+        HitCounter counter = new Metrics().getHitCounter("sentences");
+        assertEquals(0, counter.getHitRate(), 0);
+        counter.record(3, 1);
+        counter.record(0, 4);
+        assertEquals(3, counter.getHitCount());
+        assertEquals(5, counter.getMissCount());
+        assertEquals(0.375, counter.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void testSameCounterForName() {
+        Metrics metrics = new Metrics();
+        assertTrue(metrics.getHitCounter("sentences") == metrics.getHitCounter("sentences"));
+        assertEquals(1, metrics.getHitCounters().size());
+    }
+
+    @Test
+    public void testFormatAndReset() {
+        Metrics metrics = new Metrics();
+        assertFalse(metrics.format().contains("hit(%)"));
+        metrics.getHitCounter("sentences").record(1, 3);
+        String formatted = metrics.format();
+        assertTrue(formatted.contains("hit(%)"));
+        assertTrue(formatted.contains("sentences"));
+        assertTrue(formatted.contains("25.0"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getHitCounter("sentences").getHitCount());
+        assertEquals(0, metrics.getHitCounter("sentences").getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() {
+        new Metrics().getHitCounter("sentences").record(-1, 0);
+    }
+}
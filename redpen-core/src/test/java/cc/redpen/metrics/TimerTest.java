@@ -0,0 +1,98 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimerTest {
+
+    @Test
+    public void testBucketBounds() {
+        long previousBound = -1;
+        for (long nanos = 0; nanos < 100000; nanos++) {
+            int bucket = Timer.bucket(nanos);
+            long bound = Timer.upperBound(bucket);
+            assertTrue(nanos <= bound);
+            // the bucket width is at most a quarter of its lower bound
+            assertTrue(bound - nanos <= Math.max(0, nanos / 4));
+            assertTrue(bound >= previousBound);
+            previousBound = bound;
+        }
+        assertEquals(Long.MAX_VALUE, Timer.upperBound(Timer.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testRecord() {
+        Timer timer = new Metrics().getTimer(Metrics.VALIDATOR, "Foo");
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i * 1000, i % 10 == 0 ? 1 : 0);
+        }
+        assertEquals(100, timer.getCount());
+        assertEquals(5050000, timer.getTotalNanos());
+        assertEquals(50500, timer.getMeanNanos());
+        assertEquals(10, timer.getErrorCount());
+
+        long median = timer.getPercentileNanos(50);
+        assertTrue(median >= 50000 && median <= 50000 * 5 / 4);
+        long p99 = timer.getPercentileNanos(99);
+        assertTrue(p99 >= 99000 && p99 <= 99000 * 5 / 4);
+
+        timer.reset();
+        assertEquals(0, timer.getCount());
+        assertEquals(0, timer.getPercentileNanos(50));
+    }
+
+    @Test
+    public void testTimersAreSortedByKindAndTotalTime() {
+        Metrics metrics = new Metrics();
+        metrics.getTimer(Metrics.VALIDATOR, "Fast").record(10, 0);
+        metrics.getTimer(Metrics.VALIDATOR, "Slow").record(1000, 0);
+        metrics.getTimer(Metrics.PARSER, "PlainTextParser").record(100, 0);
+        assertTrue(metrics.getTimer(Metrics.VALIDATOR, "Fast") == metrics.getTimer(Metrics.VALIDATOR, "Fast"));
+
+        List<Timer> timers = metrics.getTimers();
+        assertEquals(3, timers.size());
+        assertEquals("PlainTextParser", timers.get(0).getName());
+        assertEquals("Slow", timers.get(1).getName());
+        assertEquals("Fast", timers.get(2).getName());
+        assertTrue(metrics.format().contains("Slow"));
+    }
+
+    @Test
+    public void testMetricsWithoutTiming() {
+        Metrics metrics = new Metrics(false);
+        Timer timer = metrics.getTimer(Metrics.VALIDATOR, "Foo");
+        timer.record(1000, 1);
+        assertFalse(timer.isEnabled());
+        assertEquals(0, timer.getCount());
+        assertEquals(0, timer.getErrorCount());
+        assertEquals(0, timer.getPercentileNanos(50));
+        assertTrue(metrics.getTimers().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new Metrics().getTimer(Metrics.VALIDATOR, "Foo").getPercentileNanos(101);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SentenceArenaTest {
+    @Test
+    public void testGetStoredSentence() {
+        SentenceArena arena = new SentenceArena();
+        Sentence first = new Sentence("This is a pen.", 1);
+        first.isFirstSentence = true;
+        Sentence second = new Sentence("See it.", 2);
+        second.links.add("http://example.com");
+        assertEquals(0, arena.add(first));
+        assertEquals(1, arena.add(second));
+
+        assertEquals(2, arena.size());
+        assertEquals(21, arena.getTextLength());
+        assertEquals("This is a pen.", arena.get(0).content);
+        assertEquals(1, arena.get(0).position);
+        assertTrue(arena.get(0).isFirstSentence);
+        assertTrue(arena.get(0).links.isEmpty());
+        assertEquals("See it.", arena.get(1).content);
+        assertEquals(2, arena.get(1).position);
+        assertFalse(arena.get(1).isFirstSentence);
+        assertEquals(1, arena.get(1).links.size());
+        assertEquals("http://example.com", arena.get(1).links.get(0));
+    }
+
+    @Test
+    public void testGrowBuffers() {
+        SentenceArena arena = new SentenceArena();
+        List<Sentence> list = arena.newList();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append('a');
+            list.add(new Sentence(content.toString(), i));
+        }
+        assertEquals(1000, list.size());
+        assertEquals(1000, arena.size());
+        assertEquals(1000 * 1001 / 2, arena.getTextLength());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, list.get(i).content.length());
+            assertEquals(i, list.get(i).position);
+        }
+    }
+
+    @Test
+    public void testChangeOfReadSentenceIsNotKept() {
+        SentenceArena arena = new SentenceArena();
+        List<Sentence> list = arena.newList();
+        list.add(new Sentence("This is a pen.", 1));
+        list.get(0).links.add("http://example.com");
+        assertTrue(list.get(0).links.isEmpty());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfRange() {
+        SentenceArena arena = new SentenceArena();
+        arena.add(new Sentence("This is a pen.", 1));
+        arena.get(1);
+    }
+
+    @Test
+    public void testBuildDocumentsWithArena() {
+        SentenceArena arena = new SentenceArena();
+        List<Sentence> listContents = new ArrayList<>();
+        listContents.add(new Sentence("item", 4));
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .setSentenceArena(arena)
+                .addDocument("")
+                .addSection(0, new ArrayList<>())
+                .addParagraph()
+                .addSentence("This is a pen.", 1)
+                .addSentence("That is a book.", 1)
+                .addListBlock()
+                .addListElement(0, listContents)
+                .build();
+
+        assertEquals(3, arena.size());
+        Section section = documents.getFile(0).getSection(0);
+        Paragraph paragraph = section.getParagraph(0);
+        assertEquals(2, paragraph.getNumberOfSentences());
+        assertEquals("This is a pen.", paragraph.getSentence(0).content);
+        assertTrue(paragraph.getSentence(0).isFirstSentence);
+        assertEquals("That is a book.", paragraph.getSentence(1).content);
+        assertFalse(paragraph.getSentence(1).isFirstSentence);
+        ListElement element = section.getListBlock(0).getListElement(0);
+        assertEquals("item", element.getSentence(0).content);
+        assertEquals(4, element.getSentence(0).position);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SentenceTest {
+
+    @Test
+    public void testGetWords() {
+        Sentence sentence = new Sentence("This  is a pen. ", 0);
+        assertEquals(Arrays.asList("This", "", "is", "a", "pen."), sentence.getWords());
+        assertEquals(Arrays.asList(0, 5, 6, 9, 11), sentence.getWordOffsets());
+        assertTrue(sentence.getWords() == sentence.getWords());
+    }
+
+    @Test
+    public void testGetWordsAfterContentChange() {
+        Sentence sentence = new Sentence("This is a pen.", 0);
+        assertEquals(4, sentence.getWords().size());
+        sentence.content = "Pen.";
+        assertEquals(Arrays.asList("Pen."), sentence.getWords());
+    }
+
+    @Test
+    public void testSameWordsAsSplit() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            char[] chars = new char[random.nextInt(8)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = random.nextBoolean() ? ' ' : 'a';
+            }
+            String content = new String(chars);
+            assertEquals(content, Arrays.asList(content.split(" ")),
+                    new Sentence(content, 0).getWords());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package cc.redpen.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingDocumentBuilderTest {
+
+    @Test
+    public void testSectionsAreEmittedWhenComplete() {
+        List<String> emitted = new ArrayList<>();
+        StreamingDocumentBuilder builder = new StreamingDocumentBuilder(
+                (document, section) -> emitted.add(document.getFileName() + ":"
+                        + section.getHeaderContent(0).content + ":"
+                        + section.getParagraph(0).getNumberOfSentences()));
+
+        builder.addDocument("doc1")
+                .addSection(0)
+                .addSectionHeader("sec1")
+                .addParagraph()
+                .addSentence("sentence00", 0)
+                .addSentence("sentence01", 1);
+        assertEquals(0, emitted.size());
+
+        builder.addSection(1)
+                .addSectionHeader("sec2")
+                .addParagraph()
+                .addSentence("sentence02", 2);
+        assertEquals(1, emitted.size());
+        assertEquals("doc1:sec1:2", emitted.get(0));
+
+        builder.addDocument("doc2")
+                .addSection(0)
+                .addSectionHeader("sec3")
+                .addParagraph()
+                .addSentence("sentence10", 0);
+        assertEquals(2, emitted.size());
+        assertEquals("doc1:sec2:1", emitted.get(1));
+
+        builder.flush();
+        assertEquals(3, emitted.size());
+        assertEquals("doc2:sec3:1", emitted.get(2));
+    }
+
+    @Test
+    public void testEmittedSectionsAreReleased() {
+        List<Section> emitted = new ArrayList<>();
+        StreamingDocumentBuilder builder = new StreamingDocumentBuilder(
+                (document, section) -> emitted.add(section));
+        DocumentCollection collection = builder.addDocument("doc1")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("sentence00", 0)
+                .addListBlock()
+                .addListElement(0, "item")
+                .addSection(1)
+                .addParagraph()
+                .addSentence("sentence01", 1)
+                .build();
+
+        assertEquals(2, emitted.size());
+        assertEquals(1, collection.getNumberOfDocuments());
+        assertEquals(0, collection.getFile(0).getNumberOfSections());
+        assertEquals(0, emitted.get(0).getNumberOfParagraphs());
+        assertEquals(0, emitted.get(0).getNumberOfLists());
+    }
+}
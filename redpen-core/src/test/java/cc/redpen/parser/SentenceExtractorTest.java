@@ -345,4 +345,40 @@ public class SentenceExtractorTest {
         SentenceExtractor extractor = new SentenceExtractor();
         extractor.constructEndSentencePattern(); // not a throw exception
     }
+
+    @Test
+    public void testExtractRange() {
+        SentenceExtractor extractor = new SentenceExtractor();
+        List<Sentence> outputSentences = new ArrayList<>();
+        StringBuilder text = new StringBuilder("ignored. this is a pen. that is");
+        int remainStart = extractor.extract(text, 9, text.length(),
+                outputSentences, 3);
+        assertEquals(1, outputSentences.size());
+        assertEquals("this is a pen.", outputSentences.get(0).content);
+        assertEquals(3, outputSentences.get(0).position);
+        assertEquals(23, remainStart);
+        assertEquals(" that is", text.substring(remainStart));
+    }
+
+    @Test
+    public void testExtractRangeWithoutEnd() {
+        SentenceExtractor extractor = new SentenceExtractor();
+        List<Sentence> outputSentences = new ArrayList<>();
+        String text = "this is a pen. that is";
+        int remainStart = extractor.extract(text, 15, text.length(),
+                outputSentences, 0);
+        assertEquals(0, outputSentences.size());
+        assertEquals(15, remainStart);
+    }
+
+    @Test
+    public void testExtractRangeEndsWithSentence() {
+        SentenceExtractor extractor = new SentenceExtractor();
+        List<Sentence> outputSentences = new ArrayList<>();
+        String text = "this is a pen. that is a paper.";
+        // the range ends in the middle of the second sentence
+        int remainStart = extractor.extract(text, 0, 20, outputSentences, 0);
+        assertEquals(1, outputSentences.size());
+        assertEquals(14, remainStart);
+    }
 }
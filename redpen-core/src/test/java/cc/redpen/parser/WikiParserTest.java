@@ -99,6 +99,24 @@ public class WikiParserTest {
 
     }
 
+    @Test
+    public void testGenerateDocumentWithListInArena() throws Exception {
+        String sampleText = "h1. About Japan.\n";
+        sampleText += "This is a line.\n";
+        sampleText += "- Tokyu\n";
+        sampleText += "- Keio. Odakyu\n";
+        Parser parser = DocumentParserFactory.generate(WIKI, new Configuration.Builder().build(),
+                new DocumentCollection.Builder().setSentenceArena(new SentenceArena()));
+        Document doc = parser.generateDocument(new ByteArrayInputStream(sampleText.getBytes("utf-8")));
+        ListBlock listBlock = doc.getSection(1).getListBlock(0);
+        assertEquals(2, listBlock.getNumberOfListElements());
+        assertEquals(1, listBlock.getListElement(0).getNumberOfSentences());
+        assertEquals("Tokyu", listBlock.getListElement(0).getSentence(0).content);
+        assertEquals(2, listBlock.getListElement(1).getNumberOfSentences());
+        assertEquals("Keio.", listBlock.getListElement(1).getSentence(0).content);
+        assertEquals(" Odakyu", listBlock.getListElement(1).getSentence(1).content);
+    }
+
     @Test
     public void testGenerateDocumentWithList() {
         String sampleText =
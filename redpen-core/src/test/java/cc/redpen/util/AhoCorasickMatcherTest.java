@@ -0,0 +1,99 @@
+/**
+ * RedPen
+ * Copyright (c) 2013-, Takahiko Ito, All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AhoCorasickMatcherTest {
+
+    @Test
+    public void testFindAll() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+                Arrays.asList("he", "she", "his", "hers"));
+        List<AhoCorasickMatcher.Match> matches = matcher.findAll("ushers");
+        assertEquals(3, matches.size());
+        assertEquals("she", matches.get(0).getPattern());
+        assertEquals(1, matches.get(0).getStart());
+        assertEquals(4, matches.get(0).getEnd());
+        assertEquals("he", matches.get(1).getPattern());
+        assertEquals(2, matches.get(1).getStart());
+        assertEquals("hers", matches.get(2).getPattern());
+        assertEquals(2, matches.get(2).getStart());
+        assertEquals(6, matches.get(2).getEnd());
+    }
+
+    @Test
+    public void testOverlappingOccurrences() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("aa"));
+        assertEquals(3, matcher.findAll("aaaa").size());
+    }
+
+    @Test
+    public void testFindPatterns() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+                Arrays.asList("may", "might", "ください"));
+        Map<String, Integer> found = matcher.findPatterns("it may rain, or it may not. 見てください");
+        assertEquals(2, found.size());
+        assertEquals(Integer.valueOf(3), found.get("may"));
+        assertEquals(Integer.valueOf(30), found.get("ください"));
+    }
+
+    @Test
+    public void testNoMatch() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("foo", "bar"));
+        assertTrue(matcher.findAll("there is nothing here").isEmpty());
+        assertTrue(matcher.findAll("").isEmpty());
+    }
+
+    @Test
+    public void testEmptyAndDuplicatedPatterns() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+                Arrays.asList("", "foo", "foo"));
+        assertEquals(1, matcher.size());
+        assertEquals(1, matcher.findAll("foo").size());
+        assertEquals(0, new AhoCorasickMatcher(new ArrayList<>()).findAll("foo").size());
+    }
+
+    @Test
+    public void testSameResultsAsIndexOf() {
+        List<String> patterns = Arrays.asList("ab", "abc", "bca", "c", "cab", "bb");
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(patterns);
+        String text = "abcabbcabcacbbabc";
+        int expected = 0;
+        for (String pattern : patterns) {
+            int position = text.indexOf(pattern);
+            while (position != -1) {
+                expected++;
+                position = text.indexOf(pattern, position + 1);
+            }
+        }
+        List<AhoCorasickMatcher.Match> matches = matcher.findAll(text);
+        assertEquals(expected, matches.size());
+        for (AhoCorasickMatcher.Match match : matches) {
+            assertEquals(match.getPattern(), text.substring(match.getStart(), match.getEnd()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * RedPen
+ * Copyright (c) 2013-, Takahiko Ito, All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BKTreeTest {
+
+    @Test
+    public void testPutAndGet() {
+        BKTree<Integer> tree = new BKTree<>();
+        assertNull(tree.put("book", 1));
+        assertNull(tree.put("books", 2));
+        assertNull(tree.put("cake", 3));
+        assertEquals(Integer.valueOf(2), tree.put("books", 4));
+        assertEquals(3, tree.size());
+        assertEquals(Integer.valueOf(1), tree.get("book"));
+        assertEquals(Integer.valueOf(4), tree.get("books"));
+        assertTrue(tree.containsKey("cake"));
+        assertFalse(tree.containsKey("boo"));
+        assertNull(tree.get("boo"));
+    }
+
+    @Test
+    public void testSearch() {
+        BKTree<Integer> tree = new BKTree<>();
+        String[] words = {"book", "books", "cake", "boo", "boon", "cook", "cape", "cart"};
+        for (int i = 0; i < words.length; i++) {
+            tree.put(words[i], i);
+        }
+        Map<String, Integer> result = tree.search("bo", 1);
+        assertEquals(1, result.size());
+        assertEquals(Integer.valueOf(3), result.get("boo"));
+
+        result = tree.search("cook", 1);
+        assertEquals(new HashSet<>(Arrays.asList("book", "cook")), result.keySet());
+    }
+
+    @Test
+    public void testSearchEmptyTree() {
+        assertTrue(new BKTree<Integer>().search("word", 3).isEmpty());
+    }
+
+    @Test
+    public void testAgreeWithLinearScan() {
+        Random random = new Random(11);
+        BKTree<Integer> tree = new BKTree<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String word = randomWord(random);
+            if (tree.put(word, i) == null) {
+                keys.add(word);
+            }
+        }
+        assertEquals(keys.size(), tree.size());
+        for (int i = 0; i < 200; i++) {
+            String query = randomWord(random);
+            int maxDistance = random.nextInt(3);
+            Set<String> expected = new HashSet<>();
+            for (String key : keys) {
+                if (LevenshteinDistance.getDistance(key, query) <= maxDistance) {
+                    expected.add(key);
+                }
+            }
+            assertEquals(query, expected, tree.search(query, maxDistance).keySet());
+        }
+    }
+
+    private static String randomWord(Random random) {
+        int length = 1 + random.nextInt(7);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(5)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * RedPen
+ * Copyright (c) 2013-, Takahiko Ito, All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompactWordSetTest {
+
+    @Test
+    public void testContains() {
+        CompactWordSet words = CompactWordSet.of(
+                Arrays.asList("tap", "taps", "top", "tops", "pen", "a"));
+        assertEquals(6, words.size());
+        assertTrue(words.contains("tap"));
+        assertTrue(words.contains("tops"));
+        assertTrue(words.contains("a"));
+        assertFalse(words.contains("ta"));
+        assertFalse(words.contains("tapss"));
+        assertFalse(words.contains("pens"));
+        assertFalse(words.contains(""));
+        assertFalse(words.contains((Object) 1));
+    }
+
+    @Test
+    public void testSharedSuffixes() {
+        CompactWordSet words = CompactWordSet.of(
+                Arrays.asList("tap", "taps", "top", "tops"));
+        // t -> {a,o} -> p -> s, with the "p(s)" tails merged
+        assertEquals(5, words.stateCount());
+    }
+
+    @Test
+    public void testEmptyAndDuplicateWords() {
+        CompactWordSet empty = CompactWordSet.of(Collections.<String>emptyList());
+        assertEquals(0, empty.size());
+        assertFalse(empty.contains(""));
+        assertFalse(empty.iterator().hasNext());
+
+        CompactWordSet words = CompactWordSet.of(Arrays.asList("", "pen", "pen"));
+        assertEquals(2, words.size());
+        assertTrue(words.contains(""));
+        assertTrue(words.contains("pen"));
+    }
+
+    @Test
+    public void testIterateInOrder() {
+        List<String> input = Arrays.asList("top", "", "tap", "taps", "a", "tops");
+        List<String> expected = new ArrayList<>(input);
+        Collections.sort(expected);
+        assertEquals(expected, new ArrayList<>(CompactWordSet.of(input)));
+    }
+
+    @Test
+    public void testAgreeWithHashSet() {
+        Random random = new Random(7);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            expected.add(randomWord(random));
+        }
+        CompactWordSet words = CompactWordSet.of(expected);
+        assertEquals(expected, words);
+        for (int i = 0; i < 2000; i++) {
+            String word = randomWord(random);
+            assertEquals(word, expected.contains(word), words.contains(word));
+        }
+    }
+
+    private static String randomWord(Random random) {
+        int length = 1 + random.nextInt(6);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
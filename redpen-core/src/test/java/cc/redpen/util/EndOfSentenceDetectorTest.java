@@ -220,4 +220,29 @@ public class EndOfSentenceDetectorTest {
         EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, whiteList);
         assertEquals(-1, detector.getSentenceEndPosition(str));
     }
+
+    @Test
+    public void testEndPositions() {
+        Pattern pattern = Pattern.compile("\\.");
+        String str = "He is Mr. Smith. At 10 a.m. we had a lunch. That was good";
+        List<String> whiteList = generateUmList("Mr.", "a.m.");
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, whiteList);
+        assertEquals(Arrays.asList(15, 42), detector.getSentenceEndPositions(str));
+    }
+
+    @Test
+    public void testEndPositionsInJapanese() {
+        Pattern pattern = Pattern.compile("。");
+        String str = "私はペンではない。私は人間です。";
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern);
+        assertEquals(Arrays.asList(8, 15), detector.getSentenceEndPositions(str));
+    }
+
+    @Test
+    public void testEndPositionsWithoutEnd() {
+        Pattern pattern = Pattern.compile("\\.");
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern);
+        assertEquals(0, detector.getSentenceEndPositions("this is a pen").size());
+        assertEquals(0, detector.getSentenceEndPositions("").size());
+    }
 }
@@ -19,6 +19,8 @@ package cc.redpen.util;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 public class LevenshteinDistanceTest {
@@ -169,6 +171,81 @@ public class LevenshteinDistanceTest {
         resetCost();
     }
 
+    @Test
+    public void testInstanceCosts() {
+        LevenshteinDistance distance = new LevenshteinDistance(1, 1, 2);
+        assertEquals(5, distance.distance("kitten", "sitting"));
+        LevenshteinDistance.setSubstitutionCost(ALTERNATE_COST);
+        // instances do not follow the static default
+        assertEquals(5, distance.distance("kitten", "sitting"));
+        assertEquals(3, new LevenshteinDistance().distance("kitten", "sitting"));
+        resetCost();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCost() {
+        new LevenshteinDistance(1, -1, 1);
+    }
+
+    @Test
+    public void testBoundedDistance() {
+        LevenshteinDistance distance = new LevenshteinDistance();
+        assertEquals(3, distance.distance("kitten", "sitting", 3));
+        assertEquals(3, distance.distance("kitten", "sitting", 10));
+        assertEquals(3, distance.distance("kitten", "sitting", 2));
+        assertEquals(1, distance.distance("kitten", "sitting", 0));
+        assertEquals(0, distance.distance("kitten", "kitten", 0));
+        assertEquals(3, LevenshteinDistance.getDistance("a", "abcdef", 2));
+    }
+
+    @Test
+    public void testAgreeWithFullMatrix() {
+        Random random = new Random(5);
+        int[][] costs = {{1, 1, 1}, {1, 1, 2}, {2, 3, 1}};
+        for (int i = 0; i < 3000; i++) {
+            // lengths on both sides of the bit-parallel threshold
+            String a = randomString(random, random.nextInt(3) == 0 ? 90 : 12);
+            String b = randomString(random, random.nextInt(3) == 0 ? 90 : 12);
+            for (int[] cost : costs) {
+                LevenshteinDistance distance =
+                        new LevenshteinDistance(cost[0], cost[1], cost[2]);
+                int expected = fullMatrixDistance(a, b, cost[0], cost[1], cost[2]);
+                assertEquals(a + " " + b, expected, distance.distance(a, b));
+                int limit = random.nextInt(8);
+                assertEquals(a + " " + b + " " + limit,
+                        Math.min(expected, limit + 1), distance.distance(a, b, limit));
+            }
+        }
+    }
+
+    private static String randomString(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+
+    private static int fullMatrixDistance(String a, String b,
+                                          int insertion, int deletion, int substitution) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i * deletion;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j * insertion;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                d[i][j] = a.charAt(i - 1) == b.charAt(j - 1) ? d[i - 1][j - 1]
+                        : Math.min(Math.min(d[i - 1][j] + deletion, d[i][j - 1] + insertion),
+                        d[i - 1][j - 1] + substitution);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
     public void resetCost() {
         LevenshteinDistance.setInsertionCost(1);
         LevenshteinDistance.setDeletionCost(1);
@@ -0,0 +1,18 @@
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class Sha256Test {
+    @Test
+    public void testHex() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", Sha256.hex(""));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", Sha256.hex("abc"));
+    }
+
+    @Test
+    public void testToHex() {
+        assertEquals("00ff10", Sha256.toHex(new byte[]{0, (byte) 0xff, 0x10}));
+    }
+}
@@ -23,13 +23,20 @@ import cc.redpen.formatter.XMLFormatter;
 import cc.redpen.model.Sentence;
 import org.junit.Test;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -102,6 +109,68 @@ public class XMLFormatterTest {
                 document.getElementsByTagName("validator").item(0).getTextContent());
     }
 
+    @Test
+    public void testEscapeSpecialCharacters() {
+        ValidationError error = new ValidationError(
+                this.getClass(),
+                "Found \"<a>\" & 'b'",
+                new Sentence("line\r\nnext\tend\u0001\uD83D\uDE00", 2));
+        XMLFormatter formatter = createXMLFormatter();
+        assertEquals("<error><validator>XMLFormatterTest</validator>"
+                        + "<message>Found \"&lt;a&gt;\" &amp; 'b'</message>"
+                        + "<lineNum>2</lineNum>"
+                        + "<sentence>line&#13;\nnext\tend&#1;&#128512;</sentence></error>",
+                formatter.convertError(error));
+    }
+
+    @Test
+    public void testEmptyElement() {
+        ValidationError error = new ValidationError(this.getClass(), "", 1);
+        assertEquals("<error><validator>XMLFormatterTest</validator>"
+                        + "<message/><lineNum>1</lineNum></error>",
+                createXMLFormatter().convertError(error));
+    }
+
+    @Test
+    public void testSameOutputAsTransformer() throws Exception {
+        String[] texts = {"plain text", "a&b<c>d\"e'f", "]]>", "x\ry\r\nz",
+                "\u0000\u001f\u007f\u0085\u009f\u2028\uFFFE", "\u65e5\u672c\u8a9e",
+                "\uD83D\uDE00 \uDC00", " "};
+        XMLFormatter formatter = createXMLFormatter();
+        for (String text : texts) {
+            ValidationError error = new ValidationError(
+                    this.getClass(), text, new Sentence(text, 3));
+            error.setFileName(text);
+            assertEquals(text, transform(error), formatter.convertError(error));
+        }
+    }
+
+    /**
+     * Format the error with a DOM and the JDK identity transformer, the way
+     * the XML formatter used to.
+     */
+    private String transform(ValidationError error) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element errorElement = doc.createElement("error");
+        doc.appendChild(errorElement);
+        String[][] children = {
+                {"validator", error.getValidatorName()},
+                {"message", error.getMessage()},
+                {"file", error.getFileName().get()},
+                {"lineNum", Integer.toString(error.getLineNumber())},
+                {"sentence", error.getSentence().get().content}};
+        for (String[] child : children) {
+            Element element = doc.createElement(child[0]);
+            element.appendChild(doc.createTextNode(child[1]));
+            errorElement.appendChild(element);
+        }
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        StringWriter writer = new StringWriter();
+        transformer.transform(new DOMSource(doc), new StreamResult(writer));
+        return writer.toString();
+    }
+
     private Document extractDocument(String resultString) {
         DocumentBuilder docBuilder = null;
         try {
@@ -0,0 +1,116 @@
+package cc.redpen.validator;
+
+import cc.redpen.RedPenException;
+import cc.redpen.ValidationError;
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.model.Sentence;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CharacterScannerTest {
+
+    /**
+     * Records the characters it receives.
+     */
+    private static class RecordingValidator implements CharacterValidator {
+        private final String triggerCharacters;
+        private final StringBuilder received = new StringBuilder();
+
+        RecordingValidator(String triggerCharacters) {
+            this.triggerCharacters = triggerCharacters;
+        }
+
+        @Override
+        public String getTriggerCharacters() {
+            return triggerCharacters;
+        }
+
+        @Override
+        public CharacterScan startScan(Sentence sentence) {
+            return new CharacterScan() {
+                @Override
+                public void accept(int index, char ch) {
+                    received.append(index).append(ch);
+                }
+
+                @Override
+                public void finish(List<ValidationError> errors) {
+                    received.append('|');
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testDispatchTriggerCharacters() {
+        RecordingValidator every = new RecordingValidator(null);
+        RecordingValidator commas = new RecordingValidator(",、");
+        RecordingValidator none = new RecordingValidator("");
+        CharacterScanner scanner = new CharacterScanner(Arrays.asList(every, commas, none));
+
+        scanner.scan(new Sentence("a,b、", 0), null, errorLists(3));
+        assertEquals("0a1,2b3、|", every.received.toString());
+        assertEquals("1,3、|", commas.received.toString());
+        assertEquals("|", none.received.toString());
+
+        scanner.scan(new Sentence("c,", 0), new boolean[]{false, true, false}, errorLists(3));
+        assertEquals("0a1,2b3、|", every.received.toString());
+        assertEquals("1,3、|1,|", commas.received.toString());
+    }
+
+    @Test
+    public void testSameErrorsAsSeparateValidation() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .setSymbolTable("ja")
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength")
+                        .addAttribute("max_length", "10"))
+                .addValidatorConfig(new ValidatorConfiguration("CommaNumber"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaEndHyphen"))
+                .addValidatorConfig(new ValidatorConfiguration("InvalidSymbol"))
+                .addValidatorConfig(new ValidatorConfiguration("SymbolWithSpace"))
+                .addValidatorConfig(new ValidatorConfiguration("Quotation"))
+                .addValidatorConfig(new ValidatorConfiguration("SpaceBeginningOfSentence"))
+                .build();
+        List<CharacterValidator> validators = new ArrayList<>();
+        for (ValidatorConfiguration config : configuration.getValidatorConfigs()) {
+            validators.add((CharacterValidator) ValidatorFactory.getInstance(
+                    config, configuration.getSymbolTable()));
+        }
+        CharacterScanner scanner = new CharacterScanner(validators);
+
+        String[] contents = {"", "短い文。", "これは、長い、文で、コンピューター、だ。",
+                "“引用”と‘引用’、!?", " ユーザー・インターフェース"};
+        for (String content : contents) {
+            Sentence sentence = new Sentence(content, 1);
+            List<List<ValidationError>> errors = errorLists(validators.size());
+            scanner.scan(sentence, null, errors);
+            for (int i = 0; i < validators.size(); i++) {
+                List<ValidationError> expected =
+                        ((Validator<Sentence>) validators.get(i)).validate(sentence);
+                assertEquals(content, messages(expected), messages(errors.get(i)));
+            }
+        }
+    }
+
+    private static List<List<ValidationError>> errorLists(int count) {
+        List<List<ValidationError>> errors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            errors.add(new ArrayList<>());
+        }
+        return errors;
+    }
+
+    private static List<String> messages(List<ValidationError> errors) {
+        List<String> messages = new ArrayList<>();
+        for (ValidationError error : errors) {
+            messages.add(error.getValidatorName() + ": " + error.getMessage());
+        }
+        return messages;
+    }
+}
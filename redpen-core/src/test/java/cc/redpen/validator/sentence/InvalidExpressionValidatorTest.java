@@ -41,6 +41,15 @@ public class InvalidExpressionValidatorTest {
         assertEquals(1, errors.size());
     }
 
+    @Test
+    public void testAddInvalidAfterValidation() {
+        InvalidExpressionValidator validator = new InvalidExpressionValidator();
+        validator.addInvalid("may");
+        assertEquals(1, validator.validate(new Sentence("The experiments may be true.", 0)).size());
+        validator.addInvalid("true");
+        assertEquals(2, validator.validate(new Sentence("The experiments may be true.", 0)).size());
+    }
+
     @Test
     public void testVoid() {
         InvalidExpressionValidator validator = new InvalidExpressionValidator();
@@ -25,6 +25,17 @@ public class InvalidWordValidatorTest {
         assertEquals(1, errors.size());
     }
 
+    @Test
+    public void testReportRepeatedWordOnce() {
+        InvalidWordValidator validator = new InvalidWordValidator();
+        validator.addInvalid("foolish");
+        validator.addInvalid("guy");
+        List<ValidationError> errors = validator.validate(
+                new Sentence("A foolish guy is a foolish guy.", 0));
+        assertEquals(2, errors.size());
+        assertEquals("Found invalid Word: \"foolish\"", errors.get(0).getMessage());
+    }
+
     @Test
     public void testVoid() {
         InvalidWordValidator validator = new InvalidWordValidator();
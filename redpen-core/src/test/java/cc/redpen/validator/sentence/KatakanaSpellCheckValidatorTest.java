@@ -62,6 +62,17 @@ public class KatakanaSpellCheckValidatorTest {
         assertEquals(st.toString(), 1, errors.size());
     }
 
+    @Test
+    public void testForkStartsWithEmptyDictionary() {
+        KatakanaSpellCheckValidator validator
+                = new KatakanaSpellCheckValidator();
+        validator.validate(new Sentence("フレーズ・アナライズにバグがある", 0));
+
+        Sentence st = new Sentence("バグのあるフェーズ・アナライシス", 1);
+        assertEquals(0, validator.fork().validate(st).size());
+        assertEquals(1, validator.validate(st).size());
+    }
+
     @Test
     public void testLoadDefaultDictionary() throws RedPenException {
         Configuration config = new Configuration.Builder()
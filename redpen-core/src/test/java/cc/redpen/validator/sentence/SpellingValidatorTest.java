@@ -10,6 +10,9 @@ import cc.redpen.model.DocumentCollection;
 import cc.redpen.model.Sentence;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
@@ -28,6 +31,41 @@ public class SpellingValidatorTest {
         assertEquals(1, errors.size());
     }
 
+    @Test
+    public void testReloadModifiedUserDictionary() throws Exception {
+        File dictionary = File.createTempFile("spelling", ".txt");
+        dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), "iz\n".getBytes(StandardCharsets.UTF_8));
+        Configuration config = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("Spelling")
+                        .addAttribute("dictionary", dictionary.getAbsolutePath()))
+                .setSymbolTable("en").build();
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("")
+                .addSection(1)
+                .addParagraph()
+                .addSentence("this iz goody", 1)
+                .build();
+        assertEquals(0, new RedPen.Builder().setConfiguration(config)
+                .setResultDistributor(new FakeResultDistributor()).build()
+                .check(documents).size());
+
+        Files.write(dictionary.toPath(), "goody\n".getBytes(StandardCharsets.UTF_8));
+        dictionary.setLastModified(dictionary.lastModified() + 2000);
+        assertEquals(1, new RedPen.Builder().setConfiguration(config)
+                .setResultDistributor(new FakeResultDistributor()).build()
+                .check(documents).size());
+
+        // the dictionary loaded before the modification is dropped
+        int loaded = 0;
+        for (String key : SpellingValidator.DICTIONARIES.keySet()) {
+            if (key.contains(dictionary.getAbsolutePath())) {
+                loaded++;
+            }
+        }
+        assertEquals(1, loaded);
+    }
+
     @Test
     public void testLoadDefaultDictionary() throws RedPenException {
         Configuration config = new Configuration.Builder()
@@ -80,6 +80,30 @@ public class SymbolWithSpaceValidatorTest {
         assertEquals(1, errors.size());
     }
 
+    @Test
+    public void testCheckEveryOccurrence() throws RedPenException {
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("")
+                .addSection(1)
+                .addParagraph()
+                .addSentence("I like her: yes:it is:really", 1)
+                .build();
+
+        Configuration conf = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("SymbolWithSpace"))
+                .setSymbolTable("en")
+                .setSymbol(new Symbol("COLON", ":", "", false, true))
+                .build();
+
+        RedPen validator = new RedPen.Builder()
+                .setConfiguration(conf)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+
+        List<ValidationError> errors = validator.check(documents);
+        assertEquals(2, errors.size());
+    }
+
     @Test
     public void testNeedBeforeSpace() throws RedPenException {
         DocumentCollection documents = new DocumentCollection.Builder()
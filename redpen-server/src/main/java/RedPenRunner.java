@@ -1,12 +1,15 @@
 import org.apache.commons.cli.*;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.webapp.WebAppContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.servlet.ServletContext;
 import java.net.URL;
 import java.security.ProtectionDomain;
 
 public class RedPenRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(RedPenRunner.class);
 
     public static void main(String[] args) throws Exception {
         Options options = new Options();
@@ -24,6 +27,29 @@ public class RedPenRunner {
         OptionBuilder.withArgName("CONFFILE");
         options.addOption(OptionBuilder.create("c"));
 
+        OptionBuilder.withLongOpt("threads");
+        OptionBuilder.withDescription("number of documents validated at the same time");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("THREADS");
+        options.addOption(OptionBuilder.create("t"));
+
+        OptionBuilder.withLongOpt("queue");
+        OptionBuilder.withDescription("number of documents waiting for validation before rejecting requests");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("SIZE");
+        options.addOption(OptionBuilder.create("q"));
+
+        OptionBuilder.withLongOpt("timeout");
+        OptionBuilder.withDescription("deadline of a validation request in milliseconds");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("MILLIS");
+        options.addOption(OptionBuilder.create("o"));
+
+        OptionBuilder.withLongOpt("cache");
+        OptionBuilder.withDescription("memory for cached validation results in megabytes, 0 to disable");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("MEGABYTES");
+        options.addOption(OptionBuilder.create("m"));
 
         options.addOption("v", "version", false,
                 "print the version information and exit");
@@ -56,6 +82,14 @@ public class RedPenRunner {
         if (commandLine.hasOption("p")) {
             portNum = Integer.parseInt(commandLine.getOptionValue("p"));
         }
+        setProperty(commandLine, options, "t", "redpen.validation.threads",
+                "The number of threads", 1, Integer.MAX_VALUE);
+        setProperty(commandLine, options, "q", "redpen.validation.queue",
+                "The queue size", 1, Integer.MAX_VALUE);
+        setProperty(commandLine, options, "o", "redpen.validation.timeout",
+                "The timeout", 1, Long.MAX_VALUE);
+        setProperty(commandLine, options, "m", "redpen.cache.size",
+                "The cache size", 0, Integer.MAX_VALUE);
 
         final String contextPath = System.getProperty("redpen.home", "/");
 
@@ -73,6 +107,31 @@ public class RedPenRunner {
         server.join();
     }
 
+    /**
+     * Pass the value of an option to the server as a system property, and
+     * exit when the value is not an integer in the given range.
+     */
+    private static void setProperty(CommandLine commandLine, Options options, String option,
+                                    String property, String name, long min, long max) {
+        if (!commandLine.hasOption(option)) {
+            return;
+        }
+        String value = commandLine.getOptionValue(option);
+        long number;
+        try {
+            number = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            number = min - 1;
+        }
+        if (number < min || number > max) {
+            LOG.error(name + " must be " + (min > 0 ? "a positive integer" : "zero or a positive integer")
+                    + ": " + value);
+            printHelp(options);
+            System.exit(-1);
+        }
+        System.setProperty(property, value);
+    }
+
     private static void printHelp(Options opt) {
         HelpFormatter formatter = new HelpFormatter();
         formatter.printHelp("redpen-server", opt);
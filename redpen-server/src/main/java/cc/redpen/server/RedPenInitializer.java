@@ -60,5 +60,6 @@ public class RedPenInitializer implements ServletContextListener {
     @Override
     public void contextDestroyed(ServletContextEvent servletContextEvent) {
         log.info("Stopping Document Validator Server.");
+        RedPenServer.shutdown();
     }
 }
@@ -21,7 +21,10 @@ package cc.redpen.server;
 import cc.redpen.ConfigurationLoader;
 import cc.redpen.RedPen;
 import cc.redpen.RedPenException;
+import cc.redpen.SentenceResultCache;
 import cc.redpen.config.Configuration;
+import cc.redpen.config.ConfigurationFingerprint;
+import cc.redpen.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,12 +38,25 @@ public class RedPenServer {
     private static final Logger LOG =
             LoggerFactory.getLogger(RedPenServer.class);
     static String DEFAULT_INTERNAL_CONFIG_PATH = "/conf/redpen-conf.xml";
+    static final int DEFAULT_QUEUE_SIZE = 64;
+    static final long DEFAULT_TIMEOUT_MILLIS = 60000;
+    static final long DEFAULT_CACHE_MEGABYTES = 64;
+    static final int DEFAULT_SENTENCE_CACHE_SIZE = 100000;
+    static final int DEFAULT_MAX_BATCH_SIZE = 100;
     private static RedPenServer redPenServer = null;
 
     private RedPen redPen;
 
     private Configuration config;
 
+    private ValidationExecutor executor;
+
+    private ResultCache cache;
+
+    private String configurationFingerprint;
+
+    private int maxBatchSize;
+
     private RedPenServer() throws RedPenException {
         ConfigurationLoader configLoader = new ConfigurationLoader();
         String confPath = System.getProperty("redpen.conf.path", DEFAULT_INTERNAL_CONFIG_PATH);
@@ -58,9 +74,34 @@ public class RedPenServer {
             config = configLoader.loadConfiguration(inputConfigStream);
         }
 
-        redPen = new RedPen.Builder()
+        int threadCount = Integer.getInteger("redpen.validation.threads",
+                Runtime.getRuntime().availableProcessors());
+        int queueSize = Integer.getInteger("redpen.validation.queue", DEFAULT_QUEUE_SIZE);
+        long timeoutMillis = Long.getLong("redpen.validation.timeout", DEFAULT_TIMEOUT_MILLIS);
+        LOG.info("Validating with " + threadCount + " threads, " + queueSize
+                + " queued requests and a timeout of " + timeoutMillis + " ms");
+
+        // the documents of a batch request are validated in parallel, and
+        // the sentences of edited documents validated before are not validated again
+        RedPen.Builder builder = new RedPen.Builder()
                 .setConfiguration(config)
-                .build();
+                .setThreadCount(threadCount)
+                // the timings are served by the metrics resource
+                .setMetrics(new Metrics());
+        int sentenceCacheSize = Integer.getInteger("redpen.sentence.cache",
+                DEFAULT_SENTENCE_CACHE_SIZE);
+        if (sentenceCacheSize > 0) {
+            builder.setSentenceCache(new SentenceResultCache(sentenceCacheSize));
+        }
+        redPen = builder.build();
+        executor = new ValidationExecutor(threadCount, queueSize, timeoutMillis);
+
+        long cacheMegabytes = Long.getLong("redpen.cache.size", DEFAULT_CACHE_MEGABYTES);
+        LOG.info("Caching up to " + cacheMegabytes + " MB of validation results");
+        cache = new ResultCache(cacheMegabytes * 1024 * 1024);
+        configurationFingerprint = ConfigurationFingerprint.of(config);
+        // a batch is validated as a single task, so its size bounds the work of one request
+        maxBatchSize = Integer.getInteger("redpen.batch.max", DEFAULT_MAX_BATCH_SIZE);
     }
 
     public static RedPenServer getInstance() throws
@@ -73,7 +114,20 @@ public class RedPenServer {
 
     public static synchronized void initialize() throws RedPenException {
         LOG.info("Initializing Document Validator");
+        RedPenServer previous = redPenServer;
         redPenServer = new RedPenServer();
+        if (previous != null) {
+            previous.executor.shutdown();
+            previous.redPen.close();
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (redPenServer != null) {
+            redPenServer.executor.shutdown();
+            redPenServer.redPen.close();
+            redPenServer = null;
+        }
     }
 
     public RedPen getRedPen() {
@@ -83,4 +137,20 @@ public class RedPenServer {
     public Configuration getConfig() {
         return config;
     }
+
+    public ValidationExecutor getExecutor() {
+        return executor;
+    }
+
+    public ResultCache getCache() {
+        return cache;
+    }
+
+    public String getConfigurationFingerprint() {
+        return configurationFingerprint;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
 }
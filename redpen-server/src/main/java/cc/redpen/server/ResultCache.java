@@ -0,0 +1,185 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.server;
+
+import cc.redpen.ValidationError;
+import cc.redpen.parser.Parser;
+import cc.redpen.util.Sha256;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache of validation results keyed by the digest of
+ * the document, the parser type and the configuration fingerprint.
+ * <p>
+ * The cache is bounded by an estimate of the memory held by the errors.
+ * A budget of zero disables the cache.
+ */
+public class ResultCache {
+
+    /* rough size of a map entry with its key and list */
+    private static final long ENTRY_OVERHEAD = 256;
+    /* rough size of a ValidationError and its sentence, besides the strings */
+    private static final long ERROR_OVERHEAD = 192;
+
+    private final long budgetBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long weight;
+
+    /**
+     * Constructor.
+     *
+     * @param budgetBytes estimated memory the cached results may take
+     */
+    public ResultCache(long budgetBytes) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("cache budget must not be negative: " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Compute the key of a document.
+     *
+     * @param document                 text of the document
+     * @param type                     parser of the document
+     * @param configurationFingerprint fingerprint of the configuration
+     * @return hex encoded SHA-256 digest
+     */
+    public static String key(String document, Parser.Type type, String configurationFingerprint) {
+        MessageDigest digest = Sha256.newDigest();
+        digest.update((type.name() + '\0' + configurationFingerprint + '\0')
+                .getBytes(StandardCharsets.UTF_8));
+        return Sha256.toHex(digest.digest(document.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Get the cached errors of a document.
+     *
+     * @param key key of the document
+     * @return the errors, or null when the document is not cached
+     */
+    public List<ValidationError> get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.errors;
+    }
+
+    /**
+     * Cache the errors of a document, evicting the least recently used
+     * results when the budget is exceeded.
+     *
+     * @param key    key of the document
+     * @param errors errors of the document
+     */
+    public void put(String key, List<ValidationError> errors) {
+        long entryWeight = weigh(errors);
+        if (entryWeight > budgetBytes) {
+            return;
+        }
+        Entry entry = new Entry(Collections.unmodifiableList(errors), entryWeight);
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entryWeight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (weight > budgetBytes) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                weight -= evicted.weight;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static long weigh(List<ValidationError> errors) {
+        long bytes = ENTRY_OVERHEAD;
+        for (ValidationError error : errors) {
+            bytes += ERROR_OVERHEAD + 2L * error.getMessage().length();
+            if (error.getSentence().isPresent()) {
+                bytes += 2L * error.getSentence().get().content.length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Remove all the cached results.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getBudget() {
+        return budgetBytes;
+    }
+
+    public boolean isEnabled() {
+        return budgetBytes > 0;
+    }
+
+    private static final class Entry {
+        private final List<ValidationError> errors;
+        private final long weight;
+
+        Entry(List<ValidationError> errors, long weight) {
+            this.errors = errors;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool running the validations off the request threads.
+ * <p>
+ * At most the given number of validations run at the same time, and at most
+ * the given number of requests wait for a free thread. Further requests are
+ * rejected at once instead of piling up, and a request not finished by the
+ * deadline is cancelled.
+ */
+public class ValidationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param threadCount   number of validations running at the same time
+     * @param queueSize     number of validations waiting for a free thread
+     * @param timeoutMillis deadline of a validation including the time spent in the queue
+     */
+    public ValidationExecutor(int threadCount, int queueSize, long timeoutMillis) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("thread count must be positive: " + threadCount);
+        }
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("queue size must be positive: " + queueSize);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("timeout must be positive: " + timeoutMillis);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "redpen-validator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount,
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Run the given validation on the pool and wait for its result.
+     *
+     * @param task validation to run
+     * @param <T>  type of the result
+     * @return result of the validation
+     * @throws RejectedExecutionException when all the threads are busy and the queue is full
+     * @throws TimeoutException           when the validation did not finish before the deadline
+     * @throws ExecutionException         when the validation failed
+     * @throws InterruptedException       when the calling thread is interrupted while waiting
+     */
+    public <T> T execute(Callable<T> task) throws TimeoutException,
+            ExecutionException, InterruptedException {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            // a task still in the queue is dropped, a running one is interrupted
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of validations running.
+     *
+     * @return number of busy threads
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Get the number of validations waiting for a free thread.
+     *
+     * @return size of the queue
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Get the deadline of a validation.
+     *
+     * @return timeout in milliseconds
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Stop accepting validations and interrupt the running ones.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
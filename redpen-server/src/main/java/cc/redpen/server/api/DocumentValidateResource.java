@@ -15,16 +15,19 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package cc.redpen.server.api;
 
+import cc.redpen.RedPen;
 import cc.redpen.RedPenException;
 import cc.redpen.ValidationError;
+import cc.redpen.metrics.Metrics;
 import cc.redpen.model.Document;
 import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.StreamingDocumentBuilder;
 import cc.redpen.parser.DocumentParserFactory;
 import cc.redpen.parser.Parser;
 import cc.redpen.server.RedPenServer;
+import cc.redpen.server.ResultCache;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONArray;
@@ -36,7 +39,15 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Resource to validate documents.
@@ -48,6 +59,16 @@ public class DocumentValidateResource {
             DocumentValidateResource.class
     );
 
+    /**
+     * HTTP status telling the client to retry later, missing in JAX-RS 1.1.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * HTTP status telling the request is too large, missing in JAX-RS 1.1.
+     */
+    private static final int REQUEST_ENTITY_TOO_LARGE = 413;
+
     @Path("/validate")
     @POST
     @Produces(MediaType.APPLICATION_JSON)
@@ -56,33 +77,225 @@ public class DocumentValidateResource {
 
         LOG.info("Validating document");
         RedPenServer server = RedPenServer.getInstance();
-        JSONObject json = new JSONObject();
+        ResultCache cache = server.getCache();
+        String key = null;
+        if (cache.isEnabled()) {
+            key = ResultCache.key(document, Parser.Type.PLAIN, server.getConfigurationFingerprint());
+            List<ValidationError> errors = cache.get(key);
+            if (errors != null) {
+                return Response.ok().entity(toJSON(document, errors)).build();
+            }
+        }
 
-        json.put("document", document);
+        byte[] content = document.getBytes("UTF-8");
+        String cacheKey = key;
+        return execute(server, () -> {
+            List<ValidationError> errors = validate(server, content);
+            if (cacheKey != null) {
+                cache.put(cacheKey, errors);
+            }
+            return toJSON(document, errors);
+        });
+    }
 
-        Parser parser = DocumentParserFactory.generate(
-                Parser.Type.PLAIN, server.getConfig(), new DocumentCollection.Builder());
-        Document fileContent = parser.generateDocument(new
-                ByteArrayInputStream(document.getBytes("UTF-8")));
+    /**
+     * Validate many documents in one request. The request is a JSON object
+     * holding an array "documents" of objects with a "name", a "format"
+     * (plain, markdown or wiki; plain by default) and the "document" text.
+     * The response holds the errors of each document, in the order of the
+     * request. A request can hold at most the maximum batch size of the
+     * server.
+     *
+     * @param request JSON request
+     * @return errors grouped by document
+     */
+    @Path("/validate/batch")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response validateDocuments(String request) throws JSONException, RedPenException {
+        RedPenServer server = RedPenServer.getInstance();
+        JSONArray documents;
+        try {
+            documents = new JSONObject(request).getJSONArray("documents");
+        } catch (JSONException e) {
+            return errorResponse(Response.Status.BAD_REQUEST.getStatusCode(),
+                    "Invalid batch request: " + e.getMessage());
+        }
+        if (documents.length() > server.getMaxBatchSize()) {
+            return errorResponse(REQUEST_ENTITY_TOO_LARGE, "Too many documents in a batch: "
+                    + documents.length() + " (at most " + server.getMaxBatchSize() + ")");
+        }
 
-        DocumentCollection d = new DocumentCollection();
-        d.addDocument(fileContent);
+        // the names identify the documents of the errors, so they must be unique
+        Map<String, Parser.Type> formats = new LinkedHashMap<>();
+        Map<String, String> contents = new LinkedHashMap<>();
+        for (int i = 0; i < documents.length(); i++) {
+            JSONObject document = documents.optJSONObject(i);
+            if (document == null) {
+                return errorResponse(Response.Status.BAD_REQUEST.getStatusCode(),
+                        "Document " + i + " is not an object");
+            }
+            String name = document.optString("name", String.valueOf(i));
+            String format = document.optString("format", "plain");
+            Parser.Type type;
+            try {
+                type = Parser.Type.valueOf(format.toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                return errorResponse(Response.Status.BAD_REQUEST.getStatusCode(),
+                        "Unknown format \"" + format + "\" of document \"" + name + "\"");
+            }
+            if (formats.put(name, type) != null) {
+                return errorResponse(Response.Status.BAD_REQUEST.getStatusCode(),
+                        "Duplicate document name \"" + name + "\"");
+            }
+            contents.put(name, document.optString("document", ""));
+        }
 
-        List<ValidationError> errors = server.getRedPen().check(d);
+        LOG.info("Validating " + formats.size() + " documents");
+        return execute(server, () -> {
+            Map<String, JSONArray> errorsByDocument = new LinkedHashMap<>();
+            for (String name : formats.keySet()) {
+                errorsByDocument.put(name, new JSONArray());
+            }
+            for (ValidationError error : validate(server, formats, contents)) {
+                errorsByDocument.get(error.getFileName().get()).put(toJSON(error));
+            }
 
-        JSONArray jsonErrors = new JSONArray();
+            JSONArray jsonDocuments = new JSONArray();
+            for (Map.Entry<String, JSONArray> entry : errorsByDocument.entrySet()) {
+                JSONObject jsonDocument = new JSONObject();
+                jsonDocument.put("name", entry.getKey());
+                jsonDocument.put("errors", entry.getValue());
+                jsonDocuments.put(jsonDocument);
+            }
+            JSONObject json = new JSONObject();
+            json.put("documents", jsonDocuments);
+            return json;
+        });
+    }
 
-        for (ValidationError error : errors) {
-            JSONObject jsonError = new JSONObject();
-            if (error.getSentence().isPresent()) {
-                jsonError.put("sentence", error.getSentence().get().content);
+    private static List<ValidationError> validate(RedPenServer server, byte[] content)
+            throws RedPenException {
+        RedPen redPen = server.getRedPen();
+        return redPen.checkStreaming(consumer -> {
+            long[] validationNanos = new long[1];
+            StreamingDocumentBuilder builder = new StreamingDocumentBuilder((doc, section) -> {
+                long start = System.nanoTime();
+                consumer.accept(doc, section);
+                validationNanos[0] += System.nanoTime() - start;
+            });
+            Parser parser = DocumentParserFactory.generate(
+                    Parser.Type.PLAIN, server.getConfig(), builder);
+            long start = System.nanoTime();
+            parser.generateDocument(new ByteArrayInputStream(content));
+            builder.flush();
+            // the sections are validated while parsing, only count the parse time
+            redPen.getMetrics().getTimer(Metrics.PARSER, parser.getClass().getSimpleName())
+                    .record(System.nanoTime() - start - validationNanos[0], 0);
+        });
+    }
+
+    /**
+     * Parse the documents into one collection, with one parser per format,
+     * and validate the collection. The documents are named after the keys
+     * of the maps, which also name the errors.
+     */
+    private static List<ValidationError> validate(RedPenServer server,
+                                                  Map<String, Parser.Type> formats,
+                                                  Map<String, String> contents)
+            throws RedPenException, UnsupportedEncodingException {
+        RedPen redPen = server.getRedPen();
+        DocumentCollection.Builder builder = new DocumentCollection.Builder();
+        Map<Parser.Type, Parser> parsers = new EnumMap<>(Parser.Type.class);
+        for (Map.Entry<String, Parser.Type> entry : formats.entrySet()) {
+            Parser parser = parsers.get(entry.getValue());
+            if (parser == null) {
+                parser = DocumentParserFactory.generate(entry.getValue(), server.getConfig(), builder);
+                parsers.put(entry.getValue(), parser);
             }
-            jsonError.put("message", error.getMessage());
-            jsonErrors.put(jsonError);
+            byte[] content = contents.get(entry.getKey()).getBytes("UTF-8");
+            long start = System.nanoTime();
+            Document document = parser.generateDocument(new ByteArrayInputStream(content));
+            redPen.getMetrics().getTimer(Metrics.PARSER, parser.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, 0);
+            document.setFileName(entry.getKey());
         }
+        return redPen.check(builder.build());
+    }
 
-        json.put("errors", jsonErrors);
-
+    /**
+     * Run a validation on the bounded validation pool of the server.
+     */
+    private static Response execute(RedPenServer server, Callable<JSONObject> task)
+            throws JSONException, RedPenException {
+        JSONObject json;
+        try {
+            json = server.getExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Rejected document, all the validation threads are busy");
+            return retryResponse(TOO_MANY_REQUESTS, "Too many documents are being validated");
+        } catch (TimeoutException e) {
+            LOG.warn("Validation did not finish in "
+                    + server.getExecutor().getTimeoutMillis() + " ms");
+            return retryResponse(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(),
+                    "Validation timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return retryResponse(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(),
+                    "Validation was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RedPenException) {
+                throw (RedPenException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RedPenException((Exception) cause);
+        }
         return Response.ok().entity(json).build();
     }
+
+    private static JSONObject toJSON(String document, List<ValidationError> errors)
+            throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("document", document);
+        json.put("errors", toJSON(errors));
+        return json;
+    }
+
+    private static JSONArray toJSON(List<ValidationError> errors) throws JSONException {
+        JSONArray jsonErrors = new JSONArray();
+        for (ValidationError error : errors) {
+            jsonErrors.put(toJSON(error));
+        }
+        return jsonErrors;
+    }
+
+    private static JSONObject toJSON(ValidationError error) throws JSONException {
+        JSONObject jsonError = new JSONObject();
+        if (error.getSentence().isPresent()) {
+            jsonError.put("sentence", error.getSentence().get().content);
+        }
+        jsonError.put("message", error.getMessage());
+        return jsonError;
+    }
+
+    private static Response retryResponse(int status, String message) throws JSONException {
+        return error(status, message).header("Retry-After", "1").build();
+    }
+
+    private static Response errorResponse(int status, String message) throws JSONException {
+        return error(status, message).build();
+    }
+
+    private static Response.ResponseBuilder error(int status, String message) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("error", message);
+        return Response.status(status)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(json);
+    }
 }
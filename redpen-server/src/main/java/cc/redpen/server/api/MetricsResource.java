@@ -0,0 +1,73 @@
+/*
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.server.api;
+
+import cc.redpen.RedPenException;
+import cc.redpen.metrics.Timer;
+import cc.redpen.server.RedPenServer;
+import cc.redpen.server.ResultCache;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Resource to get the time spent in each parser and validator, and the
+ * use of the result cache.
+ */
+@Path("/metrics")
+public class MetricsResource {
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getMetrics() throws JSONException, RedPenException {
+        RedPenServer server = RedPenServer.getInstance();
+        JSONArray jsonTimers = new JSONArray();
+        for (Timer timer : server.getRedPen().getMetrics().getTimers()) {
+            JSONObject jsonTimer = new JSONObject();
+            jsonTimer.put("kind", timer.getKind());
+            jsonTimer.put("name", timer.getName());
+            jsonTimer.put("count", timer.getCount());
+            jsonTimer.put("errors", timer.getErrorCount());
+            jsonTimer.put("totalNanos", timer.getTotalNanos());
+            jsonTimer.put("meanNanos", timer.getMeanNanos());
+            jsonTimer.put("p50Nanos", timer.getPercentileNanos(50));
+            jsonTimer.put("p90Nanos", timer.getPercentileNanos(90));
+            jsonTimer.put("p99Nanos", timer.getPercentileNanos(99));
+            jsonTimers.put(jsonTimer);
+        }
+        ResultCache cache = server.getCache();
+        JSONObject jsonCache = new JSONObject();
+        jsonCache.put("hits", cache.getHitCount());
+        jsonCache.put("misses", cache.getMissCount());
+        jsonCache.put("evictions", cache.getEvictionCount());
+        jsonCache.put("entries", cache.getEntryCount());
+        jsonCache.put("bytes", cache.getWeight());
+        jsonCache.put("budgetBytes", cache.getBudget());
+
+        JSONObject json = new JSONObject();
+        json.put("timers", jsonTimers);
+        json.put("cache", jsonCache);
+        return Response.ok().entity(json).build();
+    }
+}
@@ -0,0 +1,79 @@
+package cc.redpen.server;
+
+import cc.redpen.ValidationError;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.Parser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ResultCacheTest {
+
+    @Test
+    public void testHitAndMiss() {
+        ResultCache cache = new ResultCache(1024 * 1024);
+        String key = ResultCache.key("foobar.foobar", Parser.Type.PLAIN, "conf");
+        assertNull(cache.get(key));
+        cache.put(key, createErrors(1));
+        assertNotNull(cache.get(key));
+        assertEquals(1, cache.get(key).size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testKeyDependsOnTypeAndConfiguration() {
+        String key = ResultCache.key("foobar", Parser.Type.PLAIN, "conf");
+        assertEquals(key, ResultCache.key("foobar", Parser.Type.PLAIN, "conf"));
+        assertFalse(key.equals(ResultCache.key("foobar", Parser.Type.MARKDOWN, "conf")));
+        assertFalse(key.equals(ResultCache.key("foobar", Parser.Type.PLAIN, "other")));
+        assertFalse(key.equals(ResultCache.key("foobaz", Parser.Type.PLAIN, "conf")));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        ResultCache cache = new ResultCache(1000);
+        cache.put("first", createErrors(1));
+        cache.put("second", createErrors(1));
+        cache.get("first");
+        cache.put("third", createErrors(1));
+
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+        assertEquals(true, cache.getWeight() <= cache.getBudget());
+    }
+
+    @Test
+    public void testLargeResultIsNotCached() {
+        ResultCache cache = new ResultCache(1000);
+        cache.put("large", createErrors(100));
+        assertNull(cache.get("large"));
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    public void testDisabled() {
+        ResultCache cache = new ResultCache(0);
+        assertFalse(cache.isEnabled());
+        cache.put("empty", Collections.emptyList());
+        assertNull(cache.get("empty"));
+    }
+
+    private static List<ValidationError> createErrors(int count) {
+        List<ValidationError> errors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            errors.add(new ValidationError(ResultCacheTest.class, "error " + i,
+                    new Sentence("This is a sentence.", i)));
+        }
+        return errors;
+    }
+}
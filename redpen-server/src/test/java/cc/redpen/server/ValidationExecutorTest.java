@@ -0,0 +1,107 @@
+package cc.redpen.server;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ValidationExecutorTest {
+
+    @Test
+    public void testExecute() throws Exception {
+        ValidationExecutor executor = new ValidationExecutor(2, 2, 10000);
+        try {
+            assertEquals("done", executor.execute(() -> "done"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectWhenSaturated() throws Exception {
+        ValidationExecutor executor = new ValidationExecutor(1, 1, 10000);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // one task running and one waiting in the queue
+            Thread running = startBlockingTask(executor, release);
+            Thread queued = startBlockingTask(executor, release);
+            waitUntil(() -> executor.getActiveCount() == 1 && executor.getQueuedCount() == 1);
+            try {
+                executor.execute(() -> "rejected");
+                fail("Saturated executor must reject the task");
+            } catch (RejectedExecutionException e) {
+                // expected
+            }
+            release.countDown();
+            running.join();
+            queued.join();
+            assertEquals("accepted", executor.execute(() -> "accepted"));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testTimeout() throws Exception {
+        ValidationExecutor executor = new ValidationExecutor(1, 1, 50);
+        try {
+            executor.execute(() -> {
+                Thread.sleep(10000);
+                return "late";
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        ValidationExecutor executor = new ValidationExecutor(1, 1, 10000);
+        try {
+            executor.execute(() -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("Failure of the task must be reported");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQueueSize() {
+        new ValidationExecutor(1, 0, 10000);
+    }
+
+    public static Thread startBlockingTask(ValidationExecutor executor, CountDownLatch release) {
+        Thread thread = new Thread(() -> {
+            try {
+                executor.execute(() -> release.await(10, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    public static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package cc.redpen.server.api;
 
+import cc.redpen.RedPen;
 import cc.redpen.server.RedPenInitializer;
+import cc.redpen.server.RedPenServer;
+import cc.redpen.server.ValidationExecutor;
+import cc.redpen.server.ValidationExecutorTest;
 import org.apache.wink.common.http.HttpStatus;
 import org.apache.wink.common.internal.application.ApplicationFileLoader;
 import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
@@ -15,6 +19,7 @@ import javax.servlet.ServletContextListener;
 import javax.ws.rs.core.MediaType;
 import java.io.FileNotFoundException;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 public class RedPenResourceTest extends MockServletInvocationTest {
 
@@ -94,10 +99,183 @@ public class RedPenResourceTest extends MockServletInvocationTest {
         assertEquals("HTTP status", HttpStatus.OK.getCode(), response.getStatus());
     }
 
+    public void testMetrics() throws Exception {
+        MockHttpServletRequest request =
+                constructMockRequest("POST", "/document/validate", MediaType.WILDCARD);
+        request.setContent(("textarea=foobar.foobar").getBytes());
+        MockServletContext context = new MockServletContext();
+        context.addInitParameter("redpen.conf.path", "conf/redpen-conf.xml");
+        listner.contextInitialized(new ServletContextEvent(context));
+        invoke(request);
+
+        MockHttpServletResponse response =
+                invoke(constructMockRequest("GET", "/metrics", MediaType.APPLICATION_JSON));
+        assertEquals("HTTP status", HttpStatus.OK.getCode(), response.getStatus());
+        JSONArray timers = (JSONArray) new JSONObject(response.getContentAsString()).get("timers");
+        // SymbolWithSpace is timed with the other character validators
+        boolean foundScan = false;
+        boolean foundParser = false;
+        for (int i = 0; i < timers.length(); i++) {
+            JSONObject timer = timers.getJSONObject(i);
+            if (timer.getString("name").equals(RedPen.CHARACTER_SCAN)) {
+                foundScan = true;
+                assertTrue(timer.getLong("count") > 0);
+                assertTrue(timer.getLong("errors") > 0);
+            }
+            if (timer.getString("name").equals("PlainTextParser")) {
+                foundParser = true;
+            }
+        }
+        assertTrue(foundScan);
+        assertTrue(foundParser);
+    }
+
+    public void testCachedResult() throws Exception {
+        MockServletContext context = new MockServletContext();
+        context.addInitParameter("redpen.conf.path", "conf/redpen-conf.xml");
+        listner.contextInitialized(new ServletContextEvent(context));
+
+        String[] results = new String[2];
+        for (int i = 0; i < results.length; i++) {
+            MockHttpServletRequest request =
+                    constructMockRequest("POST", "/document/validate", MediaType.WILDCARD);
+            request.setContent(("textarea=foobar.foobar").getBytes());
+            MockHttpServletResponse response = invoke(request);
+            assertEquals("HTTP status", HttpStatus.OK.getCode(), response.getStatus());
+            results[i] = new JSONObject(response.getContentAsString()).get("errors").toString();
+        }
+        assertEquals(results[0], results[1]);
+
+        MockHttpServletResponse response =
+                invoke(constructMockRequest("GET", "/metrics", MediaType.APPLICATION_JSON));
+        JSONObject cache = new JSONObject(response.getContentAsString()).getJSONObject("cache");
+        assertEquals(1, cache.getLong("hits"));
+        assertEquals(1, cache.getLong("misses"));
+        assertEquals(1, cache.getLong("entries"));
+    }
+
+    public void testRejectWhenSaturated() throws Exception {
+        MockServletContext context = new MockServletContext();
+        context.addInitParameter("redpen.conf.path", "conf/redpen-conf.xml");
+        System.setProperty("redpen.validation.threads", "1");
+        System.setProperty("redpen.validation.queue", "1");
+        try {
+            listner.contextInitialized(new ServletContextEvent(context));
+        } finally {
+            System.clearProperty("redpen.validation.threads");
+            System.clearProperty("redpen.validation.queue");
+        }
+
+        ValidationExecutor executor = RedPenServer.getInstance().getExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ValidationExecutorTest.startBlockingTask(executor, release);
+            ValidationExecutorTest.startBlockingTask(executor, release);
+            ValidationExecutorTest.waitUntil(
+                    () -> executor.getActiveCount() == 1 && executor.getQueuedCount() == 1);
+
+            MockHttpServletRequest request =
+                    constructMockRequest("POST", "/document/validate", MediaType.WILDCARD);
+            request.setContent(("textarea=foobar").getBytes());
+            MockHttpServletResponse response = invoke(request);
+            assertEquals("HTTP status", 429, response.getStatus());
+            assertEquals("1", response.getHeader("Retry-After"));
+        } finally {
+            release.countDown();
+            listner.contextDestroyed(new ServletContextEvent(context));
+        }
+    }
+
+    public void testBatch() throws Exception {
+        MockHttpServletRequest request = constructMockRequest("POST",
+                "/document/validate/batch", MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON);
+        JSONArray documents = new JSONArray();
+        documents.put(new JSONObject().put("name", "first.txt").put("document", "foobar.foobar"));
+        documents.put(new JSONObject().put("name", "second.md").put("format", "markdown")
+                .put("document", "# About\n\nThis is a pen."));
+        documents.put(new JSONObject().put("name", "third.wiki").put("format", "wiki")
+                .put("document", "h1. About\n\nfoo.bar and foo.baz"));
+        request.setContent(new JSONObject().put("documents", documents).toString().getBytes("UTF-8"));
+        MockServletContext context = new MockServletContext();
+        context.addInitParameter("redpen.conf.path", "conf/redpen-conf.xml");
+        listner.contextInitialized(new ServletContextEvent(context));
+        MockHttpServletResponse response = invoke(request);
+
+        assertEquals("HTTP status", HttpStatus.OK.getCode(), response.getStatus());
+        JSONArray results = (JSONArray) new JSONObject(response.getContentAsString()).get("documents");
+        assertEquals(3, results.length());
+        assertEquals("first.txt", results.getJSONObject(0).getString("name"));
+        assertEquals(1, results.getJSONObject(0).getJSONArray("errors").length());
+        assertEquals("second.md", results.getJSONObject(1).getString("name"));
+        assertEquals(0, results.getJSONObject(1).getJSONArray("errors").length());
+        assertEquals("third.wiki", results.getJSONObject(2).getString("name"));
+        assertEquals(2, results.getJSONObject(2).getJSONArray("errors").length());
+        assertTrue(results.getJSONObject(2).getJSONArray("errors").get(0).toString()
+                .contains("Need white space after symbol (FULL_STOP)"));
+    }
+
+    public void testBatchWithUnknownFormat() throws Exception {
+        MockHttpServletRequest request = constructMockRequest("POST",
+                "/document/validate/batch", MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON);
+        JSONArray documents = new JSONArray();
+        documents.put(new JSONObject().put("name", "doc").put("format", "latex").put("document", "foobar"));
+        request.setContent(new JSONObject().put("documents", documents).toString().getBytes("UTF-8"));
+        MockServletContext context = new MockServletContext();
+        context.addInitParameter("redpen.conf.path", "conf/redpen-conf.xml");
+        listner.contextInitialized(new ServletContextEvent(context));
+        MockHttpServletResponse response = invoke(request);
+
+        assertEquals("HTTP status", HttpStatus.BAD_REQUEST.getCode(), response.getStatus());
+    }
+
+    public void testBatchWithInvalidDocument() throws Exception {
+        MockHttpServletRequest request = constructMockRequest("POST",
+                "/document/validate/batch", MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON);
+        JSONArray documents = new JSONArray();
+        documents.put(new JSONObject().put("name", "doc").put("document", "foobar"));
+        documents.put("foobar");
+        request.setContent(new JSONObject().put("documents", documents).toString().getBytes("UTF-8"));
+        MockServletContext context = new MockServletContext();
+        context.addInitParameter("redpen.conf.path", "conf/redpen-conf.xml");
+        listner.contextInitialized(new ServletContextEvent(context));
+        MockHttpServletResponse response = invoke(request);
+
+        assertEquals("HTTP status", HttpStatus.BAD_REQUEST.getCode(), response.getStatus());
+    }
+
+    public void testBatchTooLarge() throws Exception {
+        MockHttpServletRequest request = constructMockRequest("POST",
+                "/document/validate/batch", MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON);
+        JSONArray documents = new JSONArray();
+        for (int i = 0; i < 3; i++) {
+            documents.put(new JSONObject().put("name", "doc" + i).put("document", "foobar"));
+        }
+        request.setContent(new JSONObject().put("documents", documents).toString().getBytes("UTF-8"));
+        MockServletContext context = new MockServletContext();
+        context.addInitParameter("redpen.conf.path", "conf/redpen-conf.xml");
+        System.setProperty("redpen.batch.max", "2");
+        try {
+            listner.contextInitialized(new ServletContextEvent(context));
+        } finally {
+            System.clearProperty("redpen.batch.max");
+        }
+        MockHttpServletResponse response = invoke(request);
+
+        assertEquals("HTTP status", 413, response.getStatus());
+    }
+
     // test helper
     private MockHttpServletRequest constructMockRequest(String method,
                                                         String requestURI,
                                                         String acceptHeader) {
+        return constructMockRequest(method, requestURI, acceptHeader,
+                MediaType.APPLICATION_FORM_URLENCODED);
+    }
+
+    private MockHttpServletRequest constructMockRequest(String method,
+                                                        String requestURI,
+                                                        String acceptHeader,
+                                                        String contentType) {
         MockHttpServletRequest mockRequest = new MockHttpServletRequest() {
             public String getPathTranslated() {
                 return null; // prevent Spring to resolve the file on the filesystem which fails
@@ -108,8 +286,8 @@ public class RedPenResourceTest extends MockServletInvocationTest {
         mockRequest.setRequestURI(requestURI);
         mockRequest.setServerPort(8080);
         mockRequest.addHeader("Accept", acceptHeader);
-        mockRequest.addHeader("Content-Type", MediaType.APPLICATION_FORM_URLENCODED);
-        mockRequest.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        mockRequest.addHeader("Content-Type", contentType);
+        mockRequest.setContentType(contentType);
         return mockRequest;
     }
 }